@@ -0,0 +1,52 @@
+// Нагрузка с конкуренцией за блокировки строк: много запросов к нескольким «горячим» кошелькам.
+// Запуск: k6 run -e BASE_URL=http://localhost:8080 -e HOT_WALLETS=4 -e VUS=500 load-test/lock-contention.js
+// SETUP_URL — приложение, через которое создаются кошельки (у реактивной версии нет создания кошельков).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const SETUP_URL = __ENV.SETUP_URL || BASE_URL;
+const HOT_WALLETS = parseInt(__ENV.HOT_WALLETS || '4');
+const HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    scenarios: {
+        contention: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '500'),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const expiration = new Date();
+    expiration.setFullYear(expiration.getFullYear() + 1);
+    const expirationDate = expiration.toISOString().substring(0, 7);
+
+    const wallets = [];
+    for (let i = 0; i < HOT_WALLETS; i++) {
+        const response = http.post(`${SETUP_URL}/api/v1/wallets`,
+            JSON.stringify({ initialBalance: 1000000, expirationDate }), HEADERS);
+        wallets.push(response.json('walletID'));
+    }
+    return { wallets };
+}
+
+export default function (data) {
+    const wallets = data.wallets;
+    const from = wallets[Math.floor(Math.random() * wallets.length)];
+
+    let response;
+    if (Math.random() < 0.5) {
+        response = http.post(`${BASE_URL}/api/v1/wallets/${from}/deposit`,
+            JSON.stringify({ amount: 1 }), HEADERS);
+    } else {
+        const to = wallets[Math.floor(Math.random() * wallets.length)];
+        response = http.post(`${BASE_URL}/api/v1/wallets/${from}/withdraw`,
+            JSON.stringify({ walletIDTo: to, amount: 1 }), HEADERS);
+    }
+
+    check(response, { 'status is 200': (r) => r.status === 200 });
+}
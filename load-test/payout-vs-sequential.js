@@ -0,0 +1,61 @@
+// Задержка одной массовой выплаты против последовательных переводов на те же кошельки.
+// Запуск: k6 run -e BASE_URL=http://localhost:8080 -e RECIPIENTS=200 load-test/payout-vs-sequential.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RECIPIENTS = parseInt(__ENV.RECIPIENTS || '200');
+const HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+const payoutDuration = new Trend('payout_batch_duration', true);
+const sequentialDuration = new Trend('payout_sequential_duration', true);
+
+export const options = {
+    scenarios: {
+        batch: { executor: 'per-vu-iterations', vus: 1, iterations: 20, exec: 'batch', maxDuration: '2m' },
+        // Запускается после выплат пакетом, чтобы сценарии не конкурировали за блокировки получателей
+        sequential: { executor: 'per-vu-iterations', vus: 1, iterations: 20, exec: 'sequential', startTime: '2m' },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'max'],
+};
+
+function createWallet(balance, expirationDate) {
+    return http.post(`${BASE_URL}/api/v1/wallets`,
+        JSON.stringify({ initialBalance: balance, expirationDate }), HEADERS).json('walletID');
+}
+
+export function setup() {
+    const expiration = new Date();
+    expiration.setFullYear(expiration.getFullYear() + 1);
+    const expirationDate = expiration.toISOString().substring(0, 7);
+
+    const recipients = [];
+    for (let i = 0; i < RECIPIENTS; i++) {
+        recipients.push(createWallet(0, expirationDate));
+    }
+    return {
+        batchSource: createWallet(100000000, expirationDate),
+        sequentialSource: createWallet(100000000, expirationDate),
+        recipients,
+    };
+}
+
+export function batch(data) {
+    const payouts = data.recipients.map((walletIDTo) => ({ walletIDTo, amount: 1 }));
+    const response = http.post(`${BASE_URL}/api/v1/wallets/${data.batchSource}/payout`,
+        JSON.stringify({ payouts }), HEADERS);
+    check(response, { 'payout status is 200': (r) => r.status === 200 });
+    payoutDuration.add(response.timings.duration);
+}
+
+export function sequential(data) {
+    let total = 0;
+    for (const walletIDTo of data.recipients) {
+        const response = http.post(`${BASE_URL}/api/v1/wallets/${data.sequentialSource}/withdraw`,
+            JSON.stringify({ walletIDTo, amount: 1 }), HEADERS);
+        check(response, { 'withdraw status is 200': (r) => r.status === 200 });
+        total += response.timings.duration;
+    }
+    sequentialDuration.add(total);
+}
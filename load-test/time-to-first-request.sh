@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Время от запуска контейнера до первого успешного ответа API.
+# Запуск (после docker compose up -d postgres-dev):
+#   docker build -t wallet-api:default .
+#   docker build --target fast-startup -t wallet-api:fast-startup .
+#   RUNS=5 load-test/time-to-first-request.sh wallet-api:default wallet-api:fast-startup
+# Для каждого образа выводятся время каждого запуска, медиана и минимум в миллисекундах.
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+NETWORK=${NETWORK:-$(basename "$PWD" | tr '[:upper:]' '[:lower:]')_default}
+DB_URL=${DB_URL:-jdbc:postgresql://postgres-dev:5432/${DB_NAME:-wallet_db}}
+DB_USER=${DB_USER:-postgres}
+DB_PASSWORD=${DB_PASSWORD:-postgres}
+PROBE_URL=${PROBE_URL:-http://localhost:${PORT}/api/v1/wallets?page=0&size=1}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+now_ms() {
+  date +%s%3N
+}
+
+measure() {
+  local image=$1
+  local container=ttfr-$$
+  local started deadline
+  started=$(now_ms)
+  docker run -d --rm --name "$container" --network "$NETWORK" -p "$PORT:8080" \
+    -e SPRING_DATASOURCE_URL="$DB_URL" \
+    -e SPRING_DATASOURCE_USERNAME="$DB_USER" \
+    -e SPRING_DATASOURCE_PASSWORD="$DB_PASSWORD" \
+    -e PRELOAD_TEST_DATA=false \
+    "$image" > /dev/null
+  deadline=$((started + TIMEOUT_SECONDS * 1000))
+
+  until curl -sf -o /dev/null "$PROBE_URL"; do
+    if (( $(now_ms) > deadline )); then
+      docker logs "$container" | tail -20 >&2
+      docker stop "$container" > /dev/null
+      echo "timeout"
+      return 1
+    fi
+    sleep 0.02
+  done
+  echo $(( $(now_ms) - started ))
+  docker stop "$container" > /dev/null
+}
+
+for image in "$@"; do
+  results=()
+  for ((run = 1; run <= RUNS; run++)); do
+    elapsed=$(measure "$image")
+    echo "$image run $run: ${elapsed} ms"
+    results+=("$elapsed")
+  done
+  sorted=($(printf '%s\n' "${results[@]}" | sort -n))
+  echo "$image median: ${sorted[$((RUNS / 2))]} ms, min: ${sorted[0]} ms"
+done
@@ -0,0 +1,64 @@
+package ru.mishelby.walletapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.mishelby.walletapi.model.Money;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение арифметики перевода на {@link BigDecimal} и на {@link Money}.
+ * <p>
+ * Каждый бенчмарк повторяет шаги {@code WalletService.withdraw}: проверку знака суммы,
+ * сравнение с балансом, списание с отправителя и зачисление получателю.
+ * Аллокации смотреть в выводе профилировщика {@code gc} ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyArithmeticBenchmark {
+
+    private BigDecimal decimalBalanceFrom;
+    private BigDecimal decimalBalanceTo;
+    private BigDecimal decimalAmount;
+
+    private Money moneyBalanceFrom;
+    private Money moneyBalanceTo;
+    private Money moneyAmount;
+
+    @Setup
+    public void setUp() {
+        decimalBalanceFrom = new BigDecimal("150000.25");
+        decimalBalanceTo = new BigDecimal("320.10");
+        decimalAmount = new BigDecimal("10.50");
+
+        moneyBalanceFrom = Money.of(decimalBalanceFrom);
+        moneyBalanceTo = Money.of(decimalBalanceTo);
+        moneyAmount = Money.of(decimalAmount);
+    }
+
+    @Benchmark
+    public void bigDecimalTransfer(Blackhole blackhole) {
+        if (decimalAmount.signum() < 0 || decimalBalanceFrom.compareTo(decimalAmount) < 0) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(decimalBalanceFrom.subtract(decimalAmount));
+        blackhole.consume(decimalBalanceTo.add(decimalAmount));
+    }
+
+    @Benchmark
+    public void moneyTransfer(Blackhole blackhole) {
+        if (moneyAmount.signum() < 0 || moneyBalanceFrom.isLessThan(moneyAmount)) {
+            throw new IllegalStateException();
+        }
+        blackhole.consume(moneyBalanceFrom.minus(moneyAmount));
+        blackhole.consume(moneyBalanceTo.plus(moneyAmount));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.mishelby.walletapi.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import ru.mishelby.walletapi.model.generator.UuidV7Generator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность вставок в таблицу с первичным ключом {@code uuid}:
+ * случайные UUIDv4 против упорядоченных по времени UUIDv7.
+ * <p>
+ * Требует запущенный PostgreSQL. Параметры подключения берутся из переменных окружения
+ * {@code BENCH_JDBC_URL}, {@code BENCH_DB_USER}, {@code BENCH_DB_PASSWORD}
+ * (по умолчанию — как в {@code application.yaml}). Таблица создаётся и удаляется бенчмарком.
+ * <p>
+ * После каждого прогона в лог пишутся размер индекса первичного ключа и объём записанного WAL.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UuidInsertBenchmark {
+
+    private static final String TABLE = "bench_wallet_id";
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"RANDOM", "V7"})
+    public String idType;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private String walLsnBefore;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/wallet_db"),
+                env("BENCH_DB_USER", "postgres"),
+                env("BENCH_DB_PASSWORD", "postgres"));
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE
+                    + " (id uuid PRIMARY KEY, balance numeric(19,2) NOT NULL, created_at timestamp NOT NULL)");
+            try (var resultSet = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+                resultSet.next();
+                walLsnBefore = resultSet.getString(1);
+            }
+        }
+
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO " + TABLE + " (id, balance, created_at) VALUES (?, ?, ?)");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        for (var i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, nextId());
+            insert.setBigDecimal(2, BigDecimal.TEN);
+            insert.setTimestamp(3, now);
+            insert.addBatch();
+        }
+        var result = insert.executeBatch();
+        connection.commit();
+        return result;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("""
+                     SELECT count(*),
+                            pg_relation_size('%s_pkey'),
+                            pg_wal_lsn_diff(pg_current_wal_lsn(), '%s'::pg_lsn)
+                     FROM %s
+                     """.formatted(TABLE, walLsnBefore, TABLE))) {
+            resultSet.next();
+            log.info("[INFO] {}: rows={}, pk index bytes={}, wal bytes={}",
+                    idType, resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3));
+            statement.execute("DROP TABLE " + TABLE);
+        }
+        insert.close();
+        connection.close();
+    }
+
+    private UUID nextId() {
+        return "V7".equals(idType) ? UuidV7Generator.next() : UUID.randomUUID();
+    }
+
+    private static String env(String name, String defaultValue) {
+        return Objects.requireNonNullElse(System.getenv(name), defaultValue);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+import ru.mishelby.walletapi.model.enums.AuditOverflowPolicy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки журнала аудита операций ({@code wallet.audit.*}).
+ *
+ * @param enabled        включает журнал аудита
+ * @param directory      каталог файлов аудита
+ * @param bufferSize     ёмкость кольцевого буфера событий, степень двойки
+ * @param batchSize      максимальное количество событий в одной записи в файл
+ * @param flushInterval  максимальная задержка записи события в файл
+ * @param fsync          вызывать {@code fsync} после каждой записи
+ * @param maxFileSize    размер файла, после которого он ротируется
+ * @param maxFiles       количество хранимых ротированных файлов
+ * @param overflowPolicy поведение при заполненном буфере
+ * @param blockTimeout   максимальное ожидание места в буфере при {@link AuditOverflowPolicy#BLOCK}
+ */
+@ConfigurationProperties(prefix = "wallet.audit")
+public record AuditLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("logs/audit") Path directory,
+        @DefaultValue("16384") int bufferSize,
+        @DefaultValue("1024") int batchSize,
+        @DefaultValue("200ms") Duration flushInterval,
+        @DefaultValue("false") boolean fsync,
+        @DefaultValue("64MB") DataSize maxFileSize,
+        @DefaultValue("10") int maxFiles,
+        @DefaultValue("DROP") AuditOverflowPolicy overflowPolicy,
+        @DefaultValue("1s") Duration blockTimeout
+) {
+}
@@ -0,0 +1,48 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import ru.mishelby.walletapi.model.ClusterNode;
+import ru.mishelby.walletapi.model.enums.MembershipSource;
+import ru.mishelby.walletapi.model.enums.RoutingMode;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Настройки маршрутизации запросов к экземпляру-владельцу кошелька ({@code wallet.cluster.*}).
+ *
+ * @param enabled           включает маршрутизацию
+ * @param nodeId            идентификатор текущего экземпляра
+ * @param nodeUrl           адрес, по которому другие экземпляры обращаются к текущему
+ * @param routingMode       проксирование или перенаправление запроса владельцу
+ * @param membership        источник списка экземпляров
+ * @param members           статический список экземпляров
+ * @param virtualNodes      количество точек на кольце для каждого экземпляра
+ * @param heartbeatInterval период heartbeat и обновления списка экземпляров из БД
+ * @param memberTtl         через сколько без heartbeat экземпляр исключается из кольца
+ * @param forwardTimeout    таймаут проксируемого запроса
+ */
+@ConfigurationProperties(prefix = "wallet.cluster")
+public record ClusterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("node-1") String nodeId,
+        @DefaultValue("http://localhost:8080") String nodeUrl,
+        @DefaultValue("FORWARD") RoutingMode routingMode,
+        @DefaultValue("STATIC") MembershipSource membership,
+        List<ClusterNode> members,
+        @DefaultValue("128") int virtualNodes,
+        @DefaultValue("5s") Duration heartbeatInterval,
+        @DefaultValue("15s") Duration memberTtl,
+        @DefaultValue("2s") Duration forwardTimeout
+) {
+    public ClusterProperties {
+        if (isNull(members)) members = List.of();
+    }
+
+    public ClusterNode self() {
+        return new ClusterNode(nodeId, nodeUrl);
+    }
+}
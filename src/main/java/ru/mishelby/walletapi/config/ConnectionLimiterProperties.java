@@ -0,0 +1,20 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Ограничение одновременного получения соединений с БД в режиме виртуальных потоков
+ * ({@code wallet.datasource.*}).
+ *
+ * @param maxConcurrentConnections число разрешений; {@code 0} — размер пула Hikari
+ * @param acquireTimeout           максимальное ожидание разрешения
+ */
+@ConfigurationProperties(prefix = "wallet.datasource")
+public record ConnectionLimiterProperties(
+        @DefaultValue("0") int maxConcurrentConnections,
+        @DefaultValue("30s") Duration acquireTimeout
+) {
+}
@@ -0,0 +1,23 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки заморозки истёкших кошельков ({@code wallet.expiry-sweeper.*}).
+ *
+ * @param enabled   включает плановый запуск
+ * @param cron      расписание запуска
+ * @param chunkSize количество кошельков, замораживаемых одной транзакцией
+ * @param pause     пауза между порциями, чтобы не конкурировать с рабочей нагрузкой
+ */
+@ConfigurationProperties(prefix = "wallet.expiry-sweeper")
+public record ExpirySweeperProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0 5 0 * * *") String cron,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("50ms") Duration pause
+) {
+}
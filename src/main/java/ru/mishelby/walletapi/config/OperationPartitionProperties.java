@@ -0,0 +1,19 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Настройки месячных секций журнала операций ({@code wallet.operation-partitions.*}).
+ *
+ * @param cron            расписание обслуживания секций
+ * @param monthsAhead     на сколько месяцев вперёд создаются секции
+ * @param retentionMonths сколько полных месяцев журнала хранить; {@code 0} — хранить всё
+ */
+@ConfigurationProperties(prefix = "wallet.operation-partitions")
+public record OperationPartitionProperties(
+        @DefaultValue("0 15 0 * * *") String cron,
+        @DefaultValue("3") int monthsAhead,
+        @DefaultValue("0") int retentionMonths
+) {
+}
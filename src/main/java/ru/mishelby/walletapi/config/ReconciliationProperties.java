@@ -0,0 +1,29 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки сверки балансов ({@code wallet.reconciliation.*}).
+ *
+ * @param enabled                  включает плановый запуск
+ * @param cron                     расписание запуска
+ * @param partitions               количество диапазонов идентификаторов, на которые делится таблица
+ * @param parallelism              количество диапазонов, сверяемых одновременно
+ * @param chunkSize                количество кошельков, сверяемых одной транзакцией
+ * @param pause                    пауза между порциями, чтобы не конкурировать с рабочей нагрузкой
+ * @param maxReportedDiscrepancies максимальное количество расхождений в отчёте
+ */
+@ConfigurationProperties(prefix = "wallet.reconciliation")
+public record ReconciliationProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0 30 1 * * *") String cron,
+        @DefaultValue("16") int partitions,
+        @DefaultValue("2") int parallelism,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("20ms") Duration pause,
+        @DefaultValue("100") int maxReportedDiscrepancies
+) {
+}
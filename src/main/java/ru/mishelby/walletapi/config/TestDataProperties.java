@@ -0,0 +1,43 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.mishelby.walletapi.model.enums.BalanceDistribution;
+
+import static java.util.Objects.isNull;
+import static ru.mishelby.walletapi.utils.TestDataConstantValue.*;
+
+/**
+ * Настройки генерации тестовых кошельков ({@code preload.*}).
+ *
+ * @param testData            включает генерацию при старте приложения
+ * @param walletCount         количество создаваемых кошельков
+ * @param batchSize           количество строк в одном пакете вставки
+ * @param threads             количество параллельных производителей
+ * @param balanceDistribution распределение начальных балансов
+ * @param balanceMin          минимальный баланс (в основных единицах)
+ * @param balanceMax          максимальный баланс (в основных единицах, не включительно)
+ * @param expirationMonthsMax максимальный срок действия в месяцах от текущего
+ */
+@ConfigurationProperties(prefix = "preload")
+public record TestDataProperties(
+        boolean testData,
+        int walletCount,
+        int batchSize,
+        int threads,
+        BalanceDistribution balanceDistribution,
+        int balanceMin,
+        int balanceMax,
+        int expirationMonthsMax
+) {
+    public TestDataProperties {
+        if (walletCount <= 0) walletCount = COUNT_OF_ITERATION;
+        if (batchSize <= 0) batchSize = DEFAULT_BATCH_SIZE;
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+        if (isNull(balanceDistribution)) balanceDistribution = BalanceDistribution.UNIFORM;
+        if (balanceMax <= balanceMin) {
+            balanceMin = ORIGIN;
+            balanceMax = BOUND;
+        }
+        if (expirationMonthsMax <= 0) expirationMonthsMax = BOUND_NEXT_INT;
+    }
+}
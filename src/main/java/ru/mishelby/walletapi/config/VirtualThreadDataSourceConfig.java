@@ -0,0 +1,49 @@
+package ru.mishelby.walletapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Настройка доступа к БД в режиме виртуальных потоков ({@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * В этом режиме Tomcat, {@code applicationTaskExecutor} и планировщик Spring работают на виртуальных
+ * потоках, а {@link DataSource} оборачивается в {@link BoundedDataSource}.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadDataSourceConfig {
+
+    @Bean
+    static BeanPostProcessor boundedDataSourcePostProcessor(ObjectProvider<ConnectionLimiterProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+
+                var limiter = properties.getObject();
+                int permits = limiter.maxConcurrentConnections();
+                if (permits <= 0 && dataSource instanceof HikariDataSource hikari) {
+                    permits = hikari.getMaximumPoolSize();
+                }
+                if (permits <= 0) {
+                    return bean;
+                }
+
+                log.info("[INFO] Virtual threads enabled, limiting data source [{}] to {} concurrent connections",
+                        beanName, permits);
+                return new BoundedDataSource(dataSource, permits, limiter.acquireTimeout());
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки холдов ({@code wallet.holds.*}).
+ *
+ * @param defaultTtl      срок жизни холда, если он не указан в запросе
+ * @param maxTtl          максимальный срок жизни холда
+ * @param reaperEnabled   включает освобождение просроченных холдов
+ * @param reaperDelay     пауза между запусками освобождения
+ * @param reaperBatchSize количество холдов, освобождаемых одной транзакцией
+ */
+@ConfigurationProperties(prefix = "wallet.holds")
+public record WalletHoldProperties(
+        @DefaultValue("15m") Duration defaultTtl,
+        @DefaultValue("7d") Duration maxTtl,
+        @DefaultValue("true") boolean reaperEnabled,
+        @DefaultValue("30s") Duration reaperDelay,
+        @DefaultValue("200") int reaperBatchSize
+) {
+}
@@ -0,0 +1,36 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки фильтра Блума существующих кошельков ({@code wallet.id-filter.*}).
+ *
+ * @param enabled           включает отклонение неизвестных идентификаторов без запроса к БД
+ * @param expectedWallets   минимальная ёмкость фильтра; при перестроении берётся не меньше текущего
+ *                          количества кошельков с запасом {@code growth-factor}
+ * @param growthFactor      запас ёмкости на кошельки, созданные до следующего перестроения
+ * @param falsePositiveRate допустимая доля неизвестных идентификаторов, пропускаемых к БД
+ * @param maxMemory         ограничение памяти под битовый массив
+ * @param rebuildInterval   пауза между перестроениями фильтра
+ * @param fetchSize         размер порции при чтении идентификаторов из БД
+ * @param bypassMargin      запас до границы зафиксированных кошельков (начала самой старой открытой транзакции
+ *                          при построении): UUIDv7 с меткой времени позже {@code граница - bypass-margin}
+ *                          к БД пропускаются всегда. Покрывает расхождение часов приложения и БД и время
+ *                          между генерацией идентификатора и первым запросом его транзакции
+ */
+@ConfigurationProperties(prefix = "wallet.id-filter")
+public record WalletIdFilterProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long expectedWallets,
+        @DefaultValue("1.5") double growthFactor,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("64MB") DataSize maxMemory,
+        @DefaultValue("1h") Duration rebuildInterval,
+        @DefaultValue("10000") int fetchSize,
+        @DefaultValue("1m") Duration bypassMargin
+) {
+}
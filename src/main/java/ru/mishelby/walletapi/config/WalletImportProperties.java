@@ -0,0 +1,17 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Настройки потокового импорта кошельков ({@code wallet.import.*}).
+ *
+ * @param chunkSize         количество строк в одном пакете вставки
+ * @param maxReportedErrors максимальное количество ошибок строк в отчёте
+ */
+@ConfigurationProperties(prefix = "wallet.import")
+public record WalletImportProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("1000") int maxReportedErrors
+) {
+}
@@ -0,0 +1,26 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки статистики по кошелькам ({@code wallet.stats.*}).
+ *
+ * @param flushInterval      период сброса накопленных изменений в {@code wallet_stats};
+ *                           на столько же итоги одного экземпляра могут отставать от других
+ * @param defaultRange       интервал статистики операций, если он не указан в запросе
+ * @param recountCron        расписание пересчёта итогов по таблице {@code wallet}; лучше ставить на время
+ *                           низкой нагрузки, так как пересчёт читает всю таблицу
+ * @param recountMinInterval минимальная пауза между пересчётами всех экземпляров: экземпляр, запустивший
+ *                           пересчёт позже другого (например, из-за расхождения часов), таблицу повторно не читает
+ */
+@ConfigurationProperties(prefix = "wallet.stats")
+public record WalletStatsProperties(
+        @DefaultValue("5s") Duration flushInterval,
+        @DefaultValue("24h") Duration defaultRange,
+        @DefaultValue("0 30 2 * * *") String recountCron,
+        @DefaultValue("1h") Duration recountMinInterval
+) {
+}
@@ -0,0 +1,16 @@
+package ru.mishelby.walletapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import ru.mishelby.walletapi.model.enums.TransferMode;
+
+/**
+ * Настройки перевода между кошельками ({@code wallet.transfer.*}).
+ *
+ * @param mode способ выполнения перевода
+ */
+@ConfigurationProperties(prefix = "wallet.transfer")
+public record WalletTransferProperties(
+        @DefaultValue("JPA") TransferMode mode
+) {
+}
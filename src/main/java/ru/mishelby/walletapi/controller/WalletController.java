@@ -9,15 +9,23 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.mishelby.walletapi.model.CreateWalletRequest;
+import ru.mishelby.walletapi.model.PayoutOperationRequest;
 import ru.mishelby.walletapi.model.TransferOperationRequest;
 import ru.mishelby.walletapi.model.WalletDto;
+import ru.mishelby.walletapi.model.WalletImportReport;
 import ru.mishelby.walletapi.model.DepositOperationRequest;
+import ru.mishelby.walletapi.model.WalletOperationHistory;
 import ru.mishelby.walletapi.model.WalletOperationResponse;
+import ru.mishelby.walletapi.service.WalletImportService;
 import ru.mishelby.walletapi.service.WalletService;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,13 +36,16 @@ import static ru.mishelby.walletapi.utils.ApiErrorExample.*;
  * <p>
  * Поддерживает следующие операции:
  * <ul>
+ *     <li>Создание кошелька</li>
+ *     <li>Потоковый импорт кошельков (CSV / NDJSON)</li>
  *     <li>Получение текущего баланса кошелька</li>
  *     <li>Пополнение кошелька (deposit)</li>
  *     <li>Перевод средств на другой кошелёк (withdraw)</li>
+ *     <li>Массовая выплата на многие кошельки (payout)</li>
  * </ul>
  * <p>
  * Все операции логируются через {@link org.slf4j.Logger}.
- * Использует {@link WalletService} для выполнения бизнес-логики.
+ * Использует {@link WalletService} и {@link WalletImportService} для выполнения бизнес-логики.
  */
 @Tag(name = "Wallet Controller", description = "Управление операциями над кошельком")
 @Slf4j
@@ -44,6 +55,7 @@ import static ru.mishelby.walletapi.utils.ApiErrorExample.*;
 public class WalletController {
 
     private final WalletService walletService;
+    private final WalletImportService walletImportService;
 
     @Operation(summary = "Получить список всех кошельков")
     @GetMapping(produces =  MediaType.APPLICATION_JSON_VALUE)
@@ -54,10 +66,69 @@ public class WalletController {
     })
     public ResponseEntity<List<WalletDto>> findAll(@RequestParam(required = false, defaultValue = "0") int page,
                                                    @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("[INFO] GET request for getting all wallets");
+        log.debug("[DEBUG] GET request for getting all wallets");
         return ResponseEntity.ok(walletService.findAll(page, size));
     }
 
+    /**
+     * Создаёт новый кошелёк.
+     *
+     * @param request объект {@link CreateWalletRequest} с начальным балансом и сроком действия
+     * @return {@link ResponseEntity} со статусом 201 и объектом {@link WalletDto} созданного кошелька
+     */
+    @Operation(summary = "Создать новый кошелёк")
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Кошелёк создан успешно!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "201 Created", value = WALLET_CREATE_201))),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "400 Bad Request", value = WALLET_CREATE_400))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<WalletDto> createWallet(@RequestBody @Valid CreateWalletRequest request) {
+        log.debug("[DEBUG] POST request for creating wallet");
+        var walletDto = walletService.createWallet(request);
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{uuid}")
+                .buildAndExpand(walletDto.walletID())
+                .toUri();
+        return ResponseEntity.created(location).body(walletDto);
+    }
+
+    /**
+     * Импортирует кошельки с начальными балансами из CSV или NDJSON.
+     * <p>
+     * Тело запроса читается потоково; в ответе — итоги, идентификаторы созданных кошельков
+     * по номерам строк и ошибки отдельных строк.
+     *
+     * @param contentType формат тела запроса
+     * @param body        тело запроса
+     * @return {@link ResponseEntity} с объектом {@link WalletImportReport}
+     */
+    @Operation(summary = "Импортировать кошельки из CSV или NDJSON")
+    @PostMapping(path = "/import",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Импорт завершён!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "200 OK", value = WALLET_IMPORT_200))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<WalletImportReport> importWallets(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) {
+        log.debug("[DEBUG] POST import request with content type [{}]", contentType);
+        return ResponseEntity.ok(walletImportService.importWallets(body, MediaType.parseMediaType(contentType)));
+    }
+
     /**
      * Получает текущий баланс кошелька по его UUID.
      *
@@ -78,10 +149,39 @@ public class WalletController {
                             examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
     })
     public ResponseEntity<WalletDto> getWalletBalance(@PathVariable("uuid") UUID uuid) {
-        log.info("[INFO] GET request for getting wallet balance for [{}]", uuid);
+        log.debug("[DEBUG] GET request for getting wallet balance for [{}]", uuid);
         return ResponseEntity.ok(walletService.getBalance(uuid));
     }
 
+    /**
+     * Получает историю операций кошелька от новых к старым.
+     *
+     * @param uuid   UUID кошелька
+     * @param cursor курсор следующей страницы из предыдущего ответа
+     * @param size   количество операций на странице
+     * @return {@link ResponseEntity} с объектом {@link WalletOperationHistory}
+     */
+    @Operation(summary = "Получить историю операций кошелька")
+    @GetMapping(path = "/{uuid}/operations", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "История получена успешно!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "200 OK", value = WALLET_OPERATIONS_200))),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "400 Bad Request", value = WALLET_BALANCE_400))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<WalletOperationHistory> getWalletOperations(
+            @PathVariable("uuid") UUID uuid,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        log.debug("[DEBUG] GET request for operations of wallet [{}]", uuid);
+        return ResponseEntity.ok(walletService.getOperations(uuid, cursor, size));
+    }
+
     /**
      * Пополняет баланс кошелька по его UUID.
      *
@@ -106,7 +206,7 @@ public class WalletController {
             @PathVariable("uuid") UUID uuid,
             @RequestBody @Valid DepositOperationRequest request
     ) {
-        log.info("[INFO] POST deposit request for wallet [{}]", uuid);
+        log.debug("[DEBUG] POST deposit request for wallet [{}]", uuid);
         return ResponseEntity.ok(walletService.deposit(uuid, request));
     }
 
@@ -134,7 +234,35 @@ public class WalletController {
             @PathVariable("uuid") UUID uuid,
             @RequestBody @Valid TransferOperationRequest request
     ) {
-        log.info("[INFO] POST withdraw request for wallet [{}]", uuid);
+        log.debug("[DEBUG] POST withdraw request for wallet [{}]", uuid);
         return ResponseEntity.ok(walletService.withdraw(uuid, request));
     }
+
+    /**
+     * Выплачивает средства с одного кошелька на многие кошельки одной атомарной операцией.
+     *
+     * @param uuid    UUID кошелька-источника
+     * @param request объект {@link PayoutOperationRequest} со списком получателей и сумм
+     * @return {@link ResponseEntity} с объектом {@link WalletOperationResponse}, содержащим старый и новый баланс источника
+     */
+    @Operation(summary = "Выплатить деньги с кошелька на несколько кошельков")
+    @PostMapping(path = "/{uuid}/payout", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выплата выполнена успешно!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "200 OK", value = WALLET_PAYOUT_200))),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "400 Bad Request", value = WALLET_OPERATION_400))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<WalletOperationResponse> payoutOperation(
+            @PathVariable("uuid") UUID uuid,
+            @RequestBody @Valid PayoutOperationRequest request
+    ) {
+        log.debug("[DEBUG] POST payout request for wallet [{}] to {} recipients", uuid, request.payouts().size());
+        return ResponseEntity.ok(walletService.payout(uuid, request));
+    }
 }
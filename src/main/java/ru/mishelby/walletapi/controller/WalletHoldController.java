@@ -0,0 +1,129 @@
+package ru.mishelby.walletapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.mishelby.walletapi.model.HoldCaptureRequest;
+import ru.mishelby.walletapi.model.HoldRequest;
+import ru.mishelby.walletapi.model.HoldResponse;
+import ru.mishelby.walletapi.service.WalletHoldService;
+
+import java.util.UUID;
+
+import static ru.mishelby.walletapi.utils.ApiErrorExample.*;
+
+/**
+ * REST-контроллер для холдов — резервирования средств на кошельке.
+ * <p>
+ * Поддерживает следующие операции:
+ * <ul>
+ *     <li>Резервирование суммы на кошельке (hold)</li>
+ *     <li>Списание зарезервированной суммы на другой кошелёк (capture)</li>
+ *     <li>Освобождение зарезервированной суммы (release)</li>
+ * </ul>
+ * Использует {@link WalletHoldService} для выполнения бизнес-логики.
+ */
+@Tag(name = "Wallet Hold Controller", description = "Резервирование средств на кошельке")
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/wallets")
+@RequiredArgsConstructor
+public class WalletHoldController {
+
+    private final WalletHoldService walletHoldService;
+
+    /**
+     * Резервирует сумму на кошельке.
+     *
+     * @param uuid    UUID кошелька
+     * @param request объект {@link HoldRequest} с суммой и сроком жизни холда
+     * @return {@link ResponseEntity} со статусом 201 и объектом {@link HoldResponse}
+     */
+    @Operation(summary = "Зарезервировать сумму на кошельке")
+    @PostMapping(path = "/{uuid}/holds", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Сумма зарезервирована!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "201 Created", value = WALLET_HOLD_201))),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "400 Bad Request", value = WALLET_OPERATION_400))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<HoldResponse> reserve(
+            @PathVariable("uuid") UUID uuid,
+            @RequestBody @Valid HoldRequest request
+    ) {
+        log.info("[INFO] POST hold request for wallet [{}]", uuid);
+        var holdResponse = walletHoldService.reserve(uuid, request);
+        var location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/wallets/holds/{holdId}")
+                .buildAndExpand(holdResponse.holdID())
+                .toUri();
+        return ResponseEntity.created(location).body(holdResponse);
+    }
+
+    /**
+     * Списывает зарезервированную сумму на кошелёк получателя.
+     *
+     * @param holdId  UUID холда
+     * @param request объект {@link HoldCaptureRequest} с UUID получателя
+     * @return {@link ResponseEntity} с объектом {@link HoldResponse}
+     */
+    @Operation(summary = "Списать зарезервированную сумму на другой кошелёк")
+    @PostMapping(path = "/holds/{holdId}/capture", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Холд списан!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "200 OK", value = WALLET_HOLD_CAPTURE_200))),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "400 Bad Request", value = WALLET_HOLD_400))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<HoldResponse> capture(
+            @PathVariable("holdId") UUID holdId,
+            @RequestBody @Valid HoldCaptureRequest request
+    ) {
+        log.info("[INFO] POST capture request for hold [{}]", holdId);
+        return ResponseEntity.ok(walletHoldService.capture(holdId, request));
+    }
+
+    /**
+     * Освобождает зарезервированную сумму.
+     *
+     * @param holdId UUID холда
+     * @return {@link ResponseEntity} с объектом {@link HoldResponse}
+     */
+    @Operation(summary = "Освободить зарезервированную сумму")
+    @PostMapping(path = "/holds/{holdId}/release", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Холд освобождён!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "200 OK", value = WALLET_HOLD_RELEASE_200))),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "400 Bad Request", value = WALLET_HOLD_400))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<HoldResponse> release(@PathVariable("holdId") UUID holdId) {
+        log.info("[INFO] POST release request for hold [{}]", holdId);
+        return ResponseEntity.ok(walletHoldService.release(holdId));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.mishelby.walletapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.mishelby.walletapi.model.ReconciliationReport;
+import ru.mishelby.walletapi.service.WalletReconciliationService;
+
+import static ru.mishelby.walletapi.utils.ApiErrorExample.INTERNAL_ERROR_EXAMPLE;
+import static ru.mishelby.walletapi.utils.ApiErrorExample.RECONCILIATION_REPORT_200;
+
+/**
+ * REST-контроллер для отчётов сверки балансов с журналом операций.
+ * <p>
+ * Использует {@link WalletReconciliationService}.
+ */
+@Tag(name = "Reconciliation Controller", description = "Сверка балансов кошельков")
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/reconciliation")
+@RequiredArgsConstructor
+public class WalletReconciliationController {
+
+    private final WalletReconciliationService reconciliationService;
+
+    /**
+     * Возвращает отчёт о последнем запуске сверки.
+     *
+     * @return {@link ResponseEntity} с объектом {@link ReconciliationReport}
+     */
+    @Operation(summary = "Получить отчёт о последней сверке балансов")
+    @GetMapping(path = "/latest", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Отчёт получен успешно!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "200 OK", value = RECONCILIATION_REPORT_200))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<ReconciliationReport> getLatestReport() {
+        log.info("[INFO] GET request for latest reconciliation report");
+        return ResponseEntity.ok(reconciliationService.getLatestReport());
+    }
+}
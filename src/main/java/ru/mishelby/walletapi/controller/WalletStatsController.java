@@ -0,0 +1,68 @@
+package ru.mishelby.walletapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.mishelby.walletapi.model.WalletStatsResponse;
+import ru.mishelby.walletapi.service.WalletStatsService;
+
+import java.time.LocalDateTime;
+
+import static ru.mishelby.walletapi.utils.ApiErrorExample.INTERNAL_ERROR_EXAMPLE;
+import static ru.mishelby.walletapi.utils.ApiErrorExample.WALLET_STATS_200;
+import static ru.mishelby.walletapi.utils.ApiErrorExample.WALLET_STATS_400;
+
+/**
+ * REST-контроллер общей статистики по кошелькам.
+ * <p>
+ * Использует {@link WalletStatsService}.
+ */
+@Tag(name = "Wallet Stats Controller", description = "Общая статистика по кошелькам")
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/wallets")
+@RequiredArgsConstructor
+public class WalletStatsController {
+
+    private final WalletStatsService walletStatsService;
+
+    /**
+     * Возвращает количество кошельков, сумму балансов и операции по типам за интервал.
+     * Интервал расширяется до целых часов.
+     *
+     * @param from начало интервала; по умолчанию конец минус {@code wallet.stats.default-range}
+     * @param to   конец интервала; по умолчанию текущий момент
+     * @return {@link ResponseEntity} с объектом {@link WalletStatsResponse}
+     */
+    @Operation(summary = "Получить общую статистику по кошелькам")
+    @GetMapping(path = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика получена успешно!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "200 OK", value = WALLET_STATS_200))),
+            @ApiResponse(responseCode = "400", description = "Некорректный интервал!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "400 Bad Request", value = WALLET_STATS_400))),
+            @ApiResponse(responseCode = "500", description = "Неизвестная ошибка!",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(name = "500 Internal Server Error", value = INTERNAL_ERROR_EXAMPLE)))
+    })
+    public ResponseEntity<WalletStatsResponse> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("[DEBUG] GET request for wallet stats from {} to {}", from, to);
+        return ResponseEntity.ok(walletStatsService.getStats(from, to));
+    }
+}
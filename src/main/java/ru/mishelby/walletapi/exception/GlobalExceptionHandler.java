@@ -71,10 +71,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(validationException, HttpStatus.BAD_REQUEST);
     }
 
-    @ExceptionHandler(value = {
-            MethodArgumentTypeMismatchException.class,
-            WalletOperationException.class,
-    })
+    @ExceptionHandler(WalletOperationException.class)
+    public ResponseEntity<ErrorResponse> handleWalletOperationException(WalletOperationException ex,
+                                                                        HttpServletRequest request) {
+        var error = getErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                "Wallet Operation Error",
+                ex.getMessage(),
+                request.getRequestURI(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex,
                                                             HttpServletRequest request) {
 
@@ -0,0 +1,216 @@
+package ru.mishelby.walletapi.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.mishelby.walletapi.config.ClusterProperties;
+import ru.mishelby.walletapi.exception.ErrorResponse;
+import ru.mishelby.walletapi.model.ClusterNode;
+import ru.mishelby.walletapi.model.enums.RoutingMode;
+import ru.mishelby.walletapi.repository.WalletHoldRepository;
+import ru.mishelby.walletapi.service.ClusterMembershipService;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Направляет запросы по кошельку экземпляру-владельцу этого кошелька.
+ * <p>
+ * Запросы вида {@code /api/v1/wallets/{uuid}/...} к чужому кошельку проксируются владельцу
+ * ({@link RoutingMode#FORWARD}) или перенаправляются на него ответом {@code 307}
+ * ({@link RoutingMode#REDIRECT}). Так все операции над кошельком выполняются одним экземпляром
+ * и не конкурируют за блокировку строки между экземплярами. Выплата {@code /{uuid}/payout}
+ * направляется владельцу кошелька-источника из пути. Списание и освобождение холда
+ * {@code /api/v1/wallets/holds/{holdId}/...} направляются владельцу кошелька холда: он читается из БД
+ * по первичному ключу; неизвестный холд обрабатывается локально и получает {@code 404}.
+ * <p>
+ * Проксированный запрос помечается заголовком {@value #FORWARDED_HEADER} и обрабатывается
+ * получателем локально, даже если его кольцо уже изменилось, — это исключает циклы.
+ * Если соединение с владельцем не установлено, запрос обрабатывается локально: владелец его
+ * не получал, а корректность по-прежнему обеспечивают блокировки в БД. Если соединение установлено,
+ * но ответ не получен, владелец мог уже выполнить операцию, поэтому повторять её локально нельзя:
+ * клиент получает {@code 504} при таймауте и {@code 502} при другой ошибке, с телом {@link ErrorResponse},
+ * как у ошибок контроллеров.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "wallet.cluster", name = "enabled", havingValue = "true")
+public class WalletAffinityFilter extends OncePerRequestFilter {
+
+    public static final String FORWARDED_HEADER = "X-Wallet-Forwarded-By";
+
+    private static final String UUID_PATTERN =
+            "([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})";
+
+    private static final Pattern WALLET_PATH = Pattern.compile("^/api/v1/wallets/" + UUID_PATTERN + "(/.*)?$");
+
+    private static final Pattern HOLD_PATH = Pattern.compile(
+            "^/api/v1/wallets/holds/" + UUID_PATTERN + "/(capture|release)$");
+
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT);
+
+    private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION);
+
+    private final ClusterMembershipService membershipService;
+    private final WalletHoldRepository walletHoldRepository;
+    private final ClusterProperties properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public WalletAffinityFilter(ClusterMembershipService membershipService,
+                                WalletHoldRepository walletHoldRepository,
+                                ClusterProperties properties,
+                                ObjectMapper objectMapper) {
+        this.membershipService = membershipService;
+        this.walletHoldRepository = walletHoldRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.forwardTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!isNull(request.getHeader(FORWARDED_HEADER))) {
+            return true;
+        }
+        var path = path(request);
+        return !WALLET_PATH.matcher(path).matches() && !HOLD_PATH.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Optional<UUID> ownerWalletID = walletID(request);
+        if (ownerWalletID.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        UUID walletID = ownerWalletID.get();
+        ClusterNode owner = membershipService.ownerOf(walletID);
+        if (membershipService.isSelf(owner)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (properties.routingMode() == RoutingMode.REDIRECT) {
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, targetUri(owner, request).toString());
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpResponse<byte[]> ownerResponse;
+        try {
+            ownerResponse = forward(owner, request, body);
+        } catch (ConnectException | HttpConnectTimeoutException e) {
+            log.warn("[WARN] Owner {} of wallet {} is unreachable, handling locally", owner.id(), walletID);
+            filterChain.doFilter(new CachedBodyRequest(request, body), response);
+            return;
+        } catch (HttpTimeoutException e) {
+            log.error("[ERROR] Owner {} of wallet {} did not respond in time", owner.id(), walletID);
+            writeError(response, request, HttpStatus.GATEWAY_TIMEOUT, "Wallet owner %s did not respond".formatted(owner.id()));
+            return;
+        } catch (IOException e) {
+            log.error("[ERROR] Forwarding to owner {} of wallet {} failed", owner.id(), walletID, e);
+            writeError(response, request, HttpStatus.BAD_GATEWAY, "Forwarding to wallet owner %s failed".formatted(owner.id()));
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Forwarding interrupted", e);
+        }
+
+        response.setStatus(ownerResponse.statusCode());
+        for (var header : FORWARDED_RESPONSE_HEADERS) {
+            ownerResponse.headers().firstValue(header).ifPresent(value -> response.setHeader(header, value));
+        }
+        response.getOutputStream().write(ownerResponse.body());
+    }
+
+    private HttpResponse<byte[]> forward(ClusterNode owner,
+                                         HttpServletRequest request,
+                                         byte[] body) throws IOException, InterruptedException {
+        var builder = HttpRequest.newBuilder(targetUri(owner, request))
+                .timeout(properties.forwardTimeout())
+                .header(FORWARDED_HEADER, properties.nodeId())
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (var header : FORWARDED_REQUEST_HEADERS) {
+            var value = request.getHeader(header);
+            if (!isNull(value)) {
+                builder.header(header, value);
+            }
+        }
+
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private void writeError(HttpServletResponse response,
+                            HttpServletRequest request,
+                            HttpStatus status,
+                            String details) throws IOException {
+        var error = ErrorResponse.builder()
+                .status(status.value())
+                .title(status.getReasonPhrase())
+                .instance(request.getRequestURI())
+                .details(details)
+                .localDateTime(LocalDateTime.now())
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static URI targetUri(ClusterNode owner, HttpServletRequest request) {
+        var query = request.getQueryString();
+        return URI.create(owner.url() + request.getRequestURI() + (isNull(query) ? "" : "?" + query));
+    }
+
+    /**
+     * @return кошелёк, владельцу которого направляется запрос; пусто, если холд не найден
+     */
+    private Optional<UUID> walletID(HttpServletRequest request) {
+        var path = path(request);
+        var walletMatcher = WALLET_PATH.matcher(path);
+        if (walletMatcher.matches()) {
+            return Optional.of(UUID.fromString(walletMatcher.group(1)));
+        }
+        var holdMatcher = HOLD_PATH.matcher(path);
+        if (holdMatcher.matches()) {
+            return walletHoldRepository.findWalletIdById(UUID.fromString(holdMatcher.group(1)));
+        }
+        return Optional.empty();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,10 @@
+package ru.mishelby.walletapi.model;
+
+/**
+ * Экземпляр приложения в кластере.
+ *
+ * @param id  уникальный идентификатор экземпляра
+ * @param url базовый адрес экземпляра, например {@code http://10.0.0.5:8080}
+ */
+public record ClusterNode(String id, String url) {
+}
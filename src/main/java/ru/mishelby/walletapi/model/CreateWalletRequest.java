@@ -0,0 +1,18 @@
+package ru.mishelby.walletapi.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import ru.mishelby.walletapi.utils.FutureOrPresentYearMonth;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record CreateWalletRequest(
+        @NotNull(message = "Initial balance must not be null")
+        @PositiveOrZero(message = "Initial balance must not be negative")
+        BigDecimal initialBalance,
+
+        @FutureOrPresentYearMonth
+        YearMonth expirationDate
+) {
+}
@@ -0,0 +1,11 @@
+package ru.mishelby.walletapi.model;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record HoldCaptureRequest(
+        @NotNull(message = "Target wallet ID must not be null")
+        UUID walletIDTo
+) {
+}
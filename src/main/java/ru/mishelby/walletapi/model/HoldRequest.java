@@ -0,0 +1,16 @@
+package ru.mishelby.walletapi.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record HoldRequest(
+        @NotNull(message = "Amount must not be null")
+        @Positive(message = "Amount must be greater than zero")
+        BigDecimal amount,
+
+        @Positive(message = "TTL must be greater than zero")
+        Long ttlSeconds
+) {
+}
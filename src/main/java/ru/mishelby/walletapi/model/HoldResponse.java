@@ -0,0 +1,26 @@
+package ru.mishelby.walletapi.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import ru.mishelby.walletapi.model.enums.HoldStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record HoldResponse(
+        UUID holdID,
+
+        UUID walletID,
+
+        BigDecimal amount,
+
+        HoldStatus status,
+
+        LocalDateTime expiresAt,
+
+        BigDecimal availableBalance
+) {
+}
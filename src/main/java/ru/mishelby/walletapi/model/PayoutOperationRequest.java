@@ -0,0 +1,26 @@
+package ru.mishelby.walletapi.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record PayoutOperationRequest(
+        @NotEmpty(message = "Payouts must not be empty")
+        @Size(max = 1000, message = "No more than 1000 payouts per request")
+        List<@NotNull @Valid PayoutItem> payouts
+) {
+    public record PayoutItem(
+            @NotNull(message = "Target wallet ID must not be null")
+            UUID walletIDTo,
+
+            @NotNull(message = "Amount must not be null")
+            @Positive(message = "Amount must be greater than zero")
+            BigDecimal amount
+    ) {}
+}
@@ -0,0 +1,45 @@
+package ru.mishelby.walletapi.model;
+
+import lombok.Builder;
+import ru.mishelby.walletapi.model.enums.DiscrepancyType;
+import ru.mishelby.walletapi.model.enums.ReconciliationStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+public record ReconciliationReport(
+        UUID runID,
+
+        ReconciliationStatus status,
+
+        LocalDateTime startedAt,
+
+        LocalDateTime finishedAt,
+
+        int partitions,
+
+        int finishedPartitions,
+
+        long checkedWallets,
+
+        long discrepancyCount,
+
+        List<Discrepancy> discrepancies
+) {
+
+    public record Discrepancy(
+            UUID walletID,
+
+            DiscrepancyType type,
+
+            BigDecimal actualBalance,
+
+            BigDecimal expectedBalance,
+
+            LocalDateTime detectedAt
+    ) {
+    }
+}
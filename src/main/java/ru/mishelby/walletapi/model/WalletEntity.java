@@ -3,7 +3,6 @@ package ru.mishelby.walletapi.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -11,10 +10,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.format.annotation.DateTimeFormat;
+import ru.mishelby.walletapi.model.converter.MoneyConverter;
 import ru.mishelby.walletapi.model.converter.YearMonthConverter;
+import ru.mishelby.walletapi.model.generator.UuidV7;
 import ru.mishelby.walletapi.utils.FutureOrPresentYearMonth;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.UUID;
@@ -27,12 +27,21 @@ import java.util.UUID;
 @Setter
 public class WalletEntity {
     @Id
-    @GeneratedValue
+    @UuidV7
     @Column(nullable = false, columnDefinition = "uuid")
     private UUID id;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    @Convert(converter = MoneyConverter.class)
+    private Money balance = Money.ZERO;
+
+    /**
+     * Сумма активных холдов. Поддерживается инкрементально при резервировании,
+     * списании и освобождении холдов.
+     */
+    @Column(name = "held_balance", nullable = false, precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money heldBalance = Money.ZERO;
 
     @Column(name = "created_at")
     @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
@@ -42,4 +51,16 @@ public class WalletEntity {
     @Convert(converter = YearMonthConverter.class)
     @FutureOrPresentYearMonth
     private YearMonth expirationDate;
+
+    @Column(nullable = false)
+    private boolean frozen;
+
+    /**
+     * Доступный баланс: баланс за вычетом активных холдов.
+     *
+     * @return доступный для списания баланс
+     */
+    public Money getAvailableBalance() {
+        return balance.minus(heldBalance);
+    }
 }
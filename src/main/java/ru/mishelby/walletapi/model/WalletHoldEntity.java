@@ -0,0 +1,50 @@
+package ru.mishelby.walletapi.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.mishelby.walletapi.model.converter.MoneyConverter;
+import ru.mishelby.walletapi.model.enums.HoldStatus;
+import ru.mishelby.walletapi.model.generator.UuidV7;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "wallet_hold")
+@NoArgsConstructor
+@Getter
+@Setter
+public class WalletHoldEntity {
+    @Id
+    @UuidV7
+    @Column(nullable = false, columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "wallet_id", nullable = false, columnDefinition = "uuid")
+    private UUID walletId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private HoldStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
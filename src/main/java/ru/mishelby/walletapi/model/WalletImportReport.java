@@ -0,0 +1,37 @@
+package ru.mishelby.walletapi.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record WalletImportReport(
+        long totalRows,
+
+        long importedRows,
+
+        long rejectedRows,
+
+        long durationMs,
+
+        boolean errorsTruncated,
+
+        List<ImportedWallet> wallets,
+
+        List<RowError> errors
+) {
+    public record ImportedWallet(
+            long line,
+
+            UUID walletID
+    ) {}
+
+    public record RowError(
+            long line,
+
+            String message
+    ) {}
+}
@@ -0,0 +1,39 @@
+package ru.mishelby.walletapi.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+import ru.mishelby.walletapi.model.enums.OperationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+public record WalletOperationHistory(
+        UUID walletID,
+
+        List<Item> operations,
+
+        String nextCursor
+) {
+
+    @Builder
+    public record Item(
+            long operationID,
+
+            OperationType operationType,
+
+            UUID counterpartyID,
+
+            BigDecimal amount,
+
+            BigDecimal oldBalance,
+
+            BigDecimal newBalance,
+
+            @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss.SSS")
+            LocalDateTime createdAt
+    ) {
+    }
+}
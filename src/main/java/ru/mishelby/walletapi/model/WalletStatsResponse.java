@@ -0,0 +1,33 @@
+package ru.mishelby.walletapi.model;
+
+import lombok.Builder;
+import ru.mishelby.walletapi.model.enums.OperationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder
+public record WalletStatsResponse(
+        long walletCount,
+
+        BigDecimal totalBalance,
+
+        LocalDateTime from,
+
+        LocalDateTime to,
+
+        List<OperationVolume> operations,
+
+        LocalDateTime requestedAt
+) {
+
+    public record OperationVolume(
+            OperationType operationType,
+
+            long count,
+
+            BigDecimal volume
+    ) {
+    }
+}
@@ -0,0 +1,28 @@
+package ru.mishelby.walletapi.model.converter;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import ru.mishelby.walletapi.model.Money;
+
+import java.math.BigDecimal;
+
+import static java.util.Objects.nonNull;
+
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money attribute) {
+        if (nonNull(attribute)) {
+            return attribute.toBigDecimal();
+        }
+        return null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal dbData) {
+        if (nonNull(dbData)) {
+            return Money.of(dbData);
+        }
+        return null;
+    }
+}
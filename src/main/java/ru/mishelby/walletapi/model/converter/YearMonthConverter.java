@@ -7,21 +7,33 @@ import java.time.YearMonth;
 
 import static java.util.Objects.nonNull;
 
+/**
+ * Хранит {@link YearMonth} как номер месяца {@code year * 12 + month}.
+ * <p>
+ * Целочисленное представление сохраняет порядок, поэтому условия вида
+ * «истёк раньше текущего месяца» выполняются по диапазону индекса.
+ */
 @Converter(autoApply = true)
-public class YearMonthConverter implements AttributeConverter<YearMonth, String> {
+public class YearMonthConverter implements AttributeConverter<YearMonth, Integer> {
+    private static final int MONTHS_IN_YEAR = 12;
+
     @Override
-    public String convertToDatabaseColumn(YearMonth attribute) {
+    public Integer convertToDatabaseColumn(YearMonth attribute) {
         if (nonNull(attribute)) {
-            return attribute.toString();
+            return toMonthNumber(attribute);
         }
         return null;
     }
 
     @Override
-    public YearMonth convertToEntityAttribute(String dbData) {
+    public YearMonth convertToEntityAttribute(Integer dbData) {
         if (nonNull(dbData)) {
-            return YearMonth.parse(dbData);
+            return YearMonth.of((dbData - 1) / MONTHS_IN_YEAR, (dbData - 1) % MONTHS_IN_YEAR + 1);
         }
         return null;
     }
+
+    public static int toMonthNumber(YearMonth yearMonth) {
+        return yearMonth.getYear() * MONTHS_IN_YEAR + yearMonth.getMonthValue();
+    }
 }
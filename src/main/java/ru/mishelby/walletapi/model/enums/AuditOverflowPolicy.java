@@ -0,0 +1,17 @@
+package ru.mishelby.walletapi.model.enums;
+
+/**
+ * Поведение журнала аудита при заполненном буфере.
+ */
+public enum AuditOverflowPolicy {
+    /**
+     * Событие отбрасывается, операция не задерживается. Отброшенные события считаются
+     * в метрике {@code wallet.audit.dropped}.
+     */
+    DROP,
+    /**
+     * Поток операции ждёт освобождения места, но не дольше {@code wallet.audit.block-timeout};
+     * после таймаута событие отбрасывается. Ожидания считаются в метрике {@code wallet.audit.blocked}.
+     */
+    BLOCK
+}
@@ -0,0 +1,16 @@
+package ru.mishelby.walletapi.model.enums;
+
+/**
+ * Распределение начальных балансов генерируемых тестовых кошельков.
+ */
+public enum BalanceDistribution {
+    /**
+     * Равномерно в диапазоне {@code [min, max)}.
+     */
+    UNIFORM,
+
+    /**
+     * Экспоненциально: много кошельков с небольшим балансом и длинный хвост крупных.
+     */
+    EXPONENTIAL
+}
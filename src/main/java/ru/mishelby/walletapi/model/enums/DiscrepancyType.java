@@ -0,0 +1,15 @@
+package ru.mishelby.walletapi.model.enums;
+
+/**
+ * Вид расхождения, найденного сверкой балансов.
+ */
+public enum DiscrepancyType {
+    /**
+     * Баланс кошелька не равен снимку плюс сумме новых записей журнала.
+     */
+    BALANCE_MISMATCH,
+    /**
+     * Контрольная сумма снимка не совпадает с его содержимым.
+     */
+    SNAPSHOT_CORRUPTED
+}
@@ -0,0 +1,11 @@
+package ru.mishelby.walletapi.model.enums;
+
+/**
+ * Состояние холда (резервирования средств на кошельке).
+ */
+public enum HoldStatus {
+    ACTIVE,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,15 @@
+package ru.mishelby.walletapi.model.enums;
+
+/**
+ * Источник списка экземпляров кластера.
+ */
+public enum MembershipSource {
+    /**
+     * Список задан в настройках {@code wallet.cluster.members}.
+     */
+    STATIC,
+    /**
+     * Экземпляры регистрируются в таблице {@code cluster_node} и подтверждают присутствие heartbeat-ом.
+     */
+    DATABASE
+}
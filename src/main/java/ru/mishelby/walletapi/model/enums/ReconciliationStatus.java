@@ -0,0 +1,9 @@
+package ru.mishelby.walletapi.model.enums;
+
+/**
+ * Состояние запуска сверки балансов.
+ */
+public enum ReconciliationStatus {
+    RUNNING,
+    FINISHED
+}
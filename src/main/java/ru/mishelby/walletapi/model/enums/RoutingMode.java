@@ -0,0 +1,15 @@
+package ru.mishelby.walletapi.model.enums;
+
+/**
+ * Способ передачи запроса экземпляру-владельцу кошелька.
+ */
+public enum RoutingMode {
+    /**
+     * Экземпляр сам проксирует запрос владельцу и возвращает его ответ.
+     */
+    FORWARD,
+    /**
+     * Клиент получает {@code 307 Temporary Redirect} на адрес владельца.
+     */
+    REDIRECT
+}
@@ -0,0 +1,16 @@
+package ru.mishelby.walletapi.model.enums;
+
+/**
+ * Способ выполнения перевода между кошельками.
+ */
+public enum TransferMode {
+    /**
+     * Блокировка и изменение сущностей через JPA.
+     */
+    JPA,
+
+    /**
+     * Один вызов функции {@code wallet_transfer} в PostgreSQL.
+     */
+    PROCEDURE
+}
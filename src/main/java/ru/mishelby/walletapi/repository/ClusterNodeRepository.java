@@ -0,0 +1,59 @@
+package ru.mishelby.walletapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.mishelby.walletapi.model.ClusterNode;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Регистрация экземпляров приложения в таблице {@code cluster_node}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClusterNodeRepository {
+
+    private static final String HEARTBEAT = """
+            INSERT INTO cluster_node (id, url, heartbeat_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (id) DO UPDATE
+            SET url = EXCLUDED.url,
+                heartbeat_at = EXCLUDED.heartbeat_at
+            """;
+
+    private static final String FIND_LIVE = """
+            SELECT id, url
+            FROM cluster_node
+            WHERE heartbeat_at >= ?
+            ORDER BY id
+            """;
+
+    private static final String DELETE_NODE = """
+            DELETE FROM cluster_node WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void heartbeat(ClusterNode node, LocalDateTime now) {
+        jdbcTemplate.update(HEARTBEAT, node.id(), node.url(), Timestamp.valueOf(now));
+    }
+
+    /**
+     * Возвращает экземпляры, приславшие heartbeat не раньше указанного момента.
+     *
+     * @param since граница актуальности heartbeat
+     * @return живые экземпляры в порядке идентификатора
+     */
+    public List<ClusterNode> findLive(LocalDateTime since) {
+        return jdbcTemplate.query(FIND_LIVE,
+                (rs, rowNum) -> new ClusterNode(rs.getString("id"), rs.getString("url")),
+                Timestamp.valueOf(since));
+    }
+
+    public void delete(String nodeId) {
+        jdbcTemplate.update(DELETE_NODE, nodeId);
+    }
+}
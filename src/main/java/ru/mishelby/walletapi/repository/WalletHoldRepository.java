@@ -0,0 +1,43 @@
+package ru.mishelby.walletapi.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.mishelby.walletapi.model.WalletHoldEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface WalletHoldRepository extends JpaRepository<WalletHoldEntity, UUID> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT wh
+            FROM WalletHoldEntity wh
+            WHERE wh.id = :uuid
+            """)
+    Optional<WalletHoldEntity> findByIdForUpdate(@Param("uuid") UUID holdID);
+
+    @Query("""
+            SELECT wh.walletId
+            FROM WalletHoldEntity wh
+            WHERE wh.id = :uuid
+            """)
+    Optional<UUID> findWalletIdById(@Param("uuid") UUID holdID);
+
+    @Query(value = """
+            SELECT *
+            FROM wallet_hold
+            WHERE status = 'ACTIVE'
+              AND expires_at < :now
+            ORDER BY expires_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<WalletHoldEntity> findExpiredForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,220 @@
+package ru.mishelby.walletapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.WalletEntity;
+import ru.mishelby.walletapi.model.converter.YearMonthConverter;
+import ru.mishelby.walletapi.model.generator.UuidV7Generator;
+import ru.mishelby.walletapi.service.WalletIdFilter;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Пакетные операции над таблицей {@code wallet} в обход JPA.
+ * <p>
+ * Используется там, где строки обрабатываются тысячами: генерация тестовых данных, импорт,
+ * массовые выплаты, освобождение просроченных холдов и заморозка истёкших кошельков.
+ * Вставки отправляются через {@link JdbcTemplate#batchUpdate}; при включённом в URL
+ * параметре драйвера {@code reWriteBatchedInserts=true} пакет переписывается
+ * в многострочные {@code INSERT ... VALUES (...), (...)}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletJdbcRepository {
+
+    private static final String INSERT_WALLET = """
+            INSERT INTO wallet (id, balance, created_at, expiration_date)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private static final String FIND_EXPIRED_CHUNK = """
+            SELECT id, expiration_date
+            FROM wallet
+            WHERE expiration_date < ?
+              AND NOT frozen
+              AND (expiration_date, id) > (?, ?)
+            ORDER BY expiration_date, id
+            LIMIT ?
+            """;
+
+    private static final String FREEZE_WALLETS = """
+            UPDATE wallet
+            SET frozen = true
+            WHERE id IN (
+                SELECT id
+                FROM wallet
+                WHERE id = ANY (?)
+                  AND NOT frozen
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private static final String LOCK_WALLETS = """
+            SELECT id, balance, held_balance, frozen
+            FROM wallet
+            WHERE id = ANY (?)
+            ORDER BY id
+            FOR UPDATE
+            """;
+
+    private static final String CREDIT_WALLET = """
+            UPDATE wallet
+            SET balance = balance + ?
+            WHERE id = ?
+            """;
+
+    private static final String RELEASE_HELD = """
+            UPDATE wallet
+            SET held_balance = held_balance - ?
+            WHERE id = ?
+            """;
+
+    private static final YearMonthConverter YEAR_MONTH_CONVERTER = new YearMonthConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WalletOperationJournal walletOperationJournal;
+    private final WalletIdFilter walletIdFilter;
+
+    /**
+     * Вставляет кошельки одним пакетом.
+     * <p>
+     * Идентификаторы UUIDv7 присваиваются здесь, в начале транзакции вставки, а не при разборе входных
+     * данных: {@link WalletIdFilter} считает, что идентификатор сгенерирован не раньше начала
+     * его транзакции (с запасом {@code bypass-margin}). Вместе с кошельками в той же транзакции
+     * вставляются начальные записи журнала операций, идентификаторы добавляются в {@link WalletIdFilter}.
+     *
+     * @param wallets кошельки для вставки
+     */
+    @Transactional
+    public void batchInsert(List<WalletEntity> wallets) {
+        wallets.forEach(wallet -> wallet.setId(UuidV7Generator.next()));
+        jdbcTemplate.batchUpdate(INSERT_WALLET, wallets, wallets.size(), (ps, wallet) -> {
+            ps.setObject(1, wallet.getId());
+            ps.setBigDecimal(2, wallet.getBalance().toBigDecimal());
+            ps.setTimestamp(3, Timestamp.valueOf(wallet.getCreatedAt()));
+            ps.setObject(4, YEAR_MONTH_CONVERTER.convertToDatabaseColumn(wallet.getExpirationDate()));
+        });
+        walletOperationJournal.append(wallets.stream().map(WalletOperationJournal.Entry::opening).toList());
+        walletIdFilter.register(wallets.stream().map(WalletEntity::getId).toList());
+    }
+
+    /**
+     * Блокирует кошельки на запись одним запросом в порядке {@code id}.
+     * <p>
+     * Единый порядок захвата блокировок исключает взаимоблокировки между
+     * конкурирующими массовыми операциями.
+     *
+     * @param walletIDs идентификаторы кошельков
+     * @return найденные кошельки в порядке {@code id}; отсутствующие идентификаторы не возвращаются
+     */
+    public List<LockedWallet> lockForUpdate(Collection<UUID> walletIDs) {
+        return jdbcTemplate.query(con -> {
+                    var ps = con.prepareStatement(LOCK_WALLETS);
+                    ps.setArray(1, con.createArrayOf("uuid", walletIDs.toArray()));
+                    return ps;
+                },
+                (rs, rowNum) -> new LockedWallet(
+                        rs.getObject("id", UUID.class),
+                        Money.of(rs.getBigDecimal("balance")),
+                        Money.of(rs.getBigDecimal("held_balance")),
+                        rs.getBoolean("frozen")));
+    }
+
+    /**
+     * Зачисляет суммы на кошельки одним пакетом {@code UPDATE}; отрицательная сумма списывает средства.
+     * <p>
+     * Строки должны быть заранее заблокированы {@link #lockForUpdate}; пакет выполняется
+     * в порядке итерации {@code credits}.
+     *
+     * @param credits суммы зачисления по идентификаторам кошельков
+     */
+    public void batchCredit(Map<UUID, Money> credits) {
+        var entries = List.copyOf(credits.entrySet());
+        jdbcTemplate.batchUpdate(CREDIT_WALLET, entries, entries.size(), (ps, credit) -> {
+            ps.setBigDecimal(1, credit.getValue().toBigDecimal());
+            ps.setObject(2, credit.getKey());
+        });
+    }
+
+    /**
+     * Уменьшает сумму активных холдов на кошельках одним пакетом {@code UPDATE}.
+     *
+     * @param releases освобождаемые суммы по идентификаторам кошельков, в порядке захвата блокировок
+     */
+    public void batchReleaseHeld(Map<UUID, Money> releases) {
+        var entries = List.copyOf(releases.entrySet());
+        jdbcTemplate.batchUpdate(RELEASE_HELD, entries, entries.size(), (ps, release) -> {
+            ps.setBigDecimal(1, release.getValue().toBigDecimal());
+            ps.setObject(2, release.getKey());
+        });
+    }
+
+    /**
+     * Возвращает следующую порцию незамороженных кошельков, срок действия которых истёк.
+     * <p>
+     * Постраничный обход по ключу {@code (expiration_date, id)} использует индекс
+     * {@code idx_wallet_expiration_date} и не зависит от глубины страницы.
+     *
+     * @param currentMonth номер текущего месяца, см. {@link YearMonthConverter#toMonthNumber}
+     * @param after        ключ последней обработанной строки
+     * @param limit        размер порции
+     * @return ключи истёкших кошельков в порядке обхода
+     */
+    public List<ExpiredWalletKey> findExpiredChunk(int currentMonth, ExpiredWalletKey after, int limit) {
+        return jdbcTemplate.query(FIND_EXPIRED_CHUNK,
+                (rs, rowNum) -> new ExpiredWalletKey(rs.getObject(1, UUID.class), rs.getInt(2)),
+                currentMonth, after.expirationMonth(), after.id(), limit);
+    }
+
+    /**
+     * Замораживает кошельки одним коротким запросом.
+     * <p>
+     * Строки, заблокированные другими транзакциями, пропускаются ({@code SKIP LOCKED})
+     * и будут заморожены при следующем проходе.
+     *
+     * @param walletIDs идентификаторы кошельков
+     * @return количество замороженных кошельков
+     */
+    public int freeze(List<UUID> walletIDs) {
+        return jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(FREEZE_WALLETS);
+            ps.setArray(1, con.createArrayOf("uuid", walletIDs.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Ключ постраничного обхода истёкших кошельков.
+     *
+     * @param id              UUID кошелька
+     * @param expirationMonth номер месяца окончания срока действия
+     */
+    public record ExpiredWalletKey(UUID id, int expirationMonth) {
+        public static final ExpiredWalletKey START = new ExpiredWalletKey(new UUID(0L, 0L), Integer.MIN_VALUE);
+    }
+
+    /**
+     * Кошелёк, заблокированный {@link #lockForUpdate}.
+     *
+     * @param id          UUID кошелька
+     * @param balance     баланс на момент блокировки
+     * @param heldBalance сумма активных холдов на момент блокировки
+     * @param frozen      признак заморозки
+     */
+    public record LockedWallet(UUID id, Money balance, Money heldBalance, boolean frozen) {
+
+        /**
+         * Возвращает баланс, доступный для списания: баланс за вычетом активных холдов.
+         */
+        public Money availableBalance() {
+            return balance.minus(heldBalance);
+        }
+    }
+}
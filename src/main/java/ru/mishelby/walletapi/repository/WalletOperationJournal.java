@@ -0,0 +1,153 @@
+package ru.mishelby.walletapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.WalletEntity;
+import ru.mishelby.walletapi.model.WalletOperationHistory;
+import ru.mishelby.walletapi.model.enums.OperationType;
+import ru.mishelby.walletapi.service.WalletAuditLog;
+import ru.mishelby.walletapi.service.WalletStatsService;
+import ru.mishelby.walletapi.utils.OperationCursor;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Журнал операций {@code wallet_operation}.
+ * <p>
+ * Каждое изменение баланса записывается в той же транзакции, что и изменение строки кошелька,
+ * поэтому баланс кошелька всегда равен сумме {@code amount} его записей. На этом основана сверка
+ * {@link ru.mishelby.walletapi.service.WalletReconciliationService}.
+ * <p>
+ * Записи одного кошелька вставляются под блокировкой его строки, поэтому порядок {@code seq}
+ * в пределах кошелька совпадает с порядком фиксации транзакций.
+ * <p>
+ * После фиксации транзакции записи дополнительно передаются в {@link WalletAuditLog} и {@link WalletStatsService}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletOperationJournal {
+
+    private static final String INSERT_OPERATION = """
+            INSERT INTO wallet_operation
+                (wallet_id, counterparty_id, operation_type, amount, old_balance, new_balance, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_HISTORY = """
+            SELECT seq, counterparty_id, operation_type, amount, old_balance, new_balance, created_at
+            FROM wallet_operation
+            WHERE wallet_id = ?
+            """;
+
+    private static final String AFTER_CURSOR = """
+              AND (created_at, seq) < (?, ?)
+            """;
+
+    private static final String HISTORY_ORDER = """
+            ORDER BY created_at DESC, seq DESC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WalletAuditLog walletAuditLog;
+    private final WalletStatsService walletStatsService;
+
+    /**
+     * Записывает операции одним пакетом в текущей транзакции и передаёт их подписчикам журнала.
+     *
+     * @param entries записи журнала
+     */
+    public void append(List<Entry> entries) {
+        var createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_OPERATION, entries, entries.size(), (ps, entry) -> {
+            ps.setObject(1, entry.walletId());
+            ps.setObject(2, entry.counterpartyId());
+            ps.setString(3, entry.operationType().name());
+            ps.setBigDecimal(4, entry.amount().toBigDecimal());
+            ps.setBigDecimal(5, entry.oldBalance().toBigDecimal());
+            ps.setBigDecimal(6, entry.newBalance().toBigDecimal());
+            ps.setTimestamp(7, createdAt);
+        });
+        afterAppend(entries);
+    }
+
+    /**
+     * Читает операции кошелька от новых к старым.
+     * <p>
+     * Условие и порядок совпадают с индексом {@code idx_wallet_operation_wallet_created},
+     * который содержит все выбираемые столбцы, поэтому страница читается index-only scan
+     * независимо от её глубины.
+     *
+     * @param walletId UUID кошелька
+     * @param cursor   позиция последней выданной записи или {@code null} для первой страницы
+     * @param limit    максимальное количество записей
+     * @return записи в порядке {@code (created_at, seq)} по убыванию
+     */
+    public List<WalletOperationHistory.Item> findHistory(UUID walletId, OperationCursor cursor, int limit) {
+        RowMapper<WalletOperationHistory.Item> mapper = (rs, rowNum) -> WalletOperationHistory.Item.builder()
+                .operationID(rs.getLong("seq"))
+                .operationType(OperationType.valueOf(rs.getString("operation_type")))
+                .counterpartyID(rs.getObject("counterparty_id", UUID.class))
+                .amount(rs.getBigDecimal("amount"))
+                .oldBalance(rs.getBigDecimal("old_balance"))
+                .newBalance(rs.getBigDecimal("new_balance"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+
+        if (cursor == null) {
+            return jdbcTemplate.query(SELECT_HISTORY + HISTORY_ORDER, mapper, walletId, limit);
+        }
+        return jdbcTemplate.query(SELECT_HISTORY + AFTER_CURSOR + HISTORY_ORDER, mapper,
+                walletId, Timestamp.valueOf(cursor.createdAt()), cursor.seq(), limit);
+    }
+
+    /**
+     * Передаёт записи в журнал аудита и статистику после фиксации текущей транзакции.
+     * Вызывается напрямую для записей, которые вставила в журнал функция базы данных.
+     *
+     * @param entries записи журнала
+     */
+    public void afterAppend(List<Entry> entries) {
+        walletAuditLog.publishAfterCommit(entries);
+        walletStatsService.recordAfterCommit(entries);
+    }
+
+    /**
+     * Запись журнала.
+     *
+     * @param walletId       UUID кошелька, баланс которого изменился
+     * @param counterpartyId UUID второго кошелька операции ({@code null} для пополнения и открытия)
+     * @param operationType  тип операции
+     * @param oldBalance     баланс до операции
+     * @param newBalance     баланс после операции
+     */
+    public record Entry(UUID walletId,
+                        UUID counterpartyId,
+                        OperationType operationType,
+                        Money oldBalance,
+                        Money newBalance) {
+
+        /**
+         * Начальная запись для нового кошелька.
+         *
+         * @param walletEntity кошелёк с присвоенным идентификатором
+         * @return запись {@link OperationType#OPENING}
+         */
+        public static Entry opening(WalletEntity walletEntity) {
+            return new Entry(walletEntity.getId(), null, OperationType.OPENING, Money.ZERO, walletEntity.getBalance());
+        }
+
+        /**
+         * @return изменение баланса со знаком
+         */
+        public Money amount() {
+            return newBalance.minus(oldBalance);
+        }
+    }
+}
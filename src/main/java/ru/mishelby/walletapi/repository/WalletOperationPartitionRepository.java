@@ -0,0 +1,137 @@
+package ru.mishelby.walletapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Месячные секции журнала {@code wallet_operation}.
+ * <p>
+ * Секция за месяц называется {@code wallet_operation_yYYYYmMM}, так же как секции,
+ * созданные миграцией {@code 007-partition-wallet-tables.yaml}.
+ * <p>
+ * DDL секций выполняется в транзакции под {@code pg_advisory_xact_lock}, поэтому несколько экземпляров
+ * приложения, одновременно запустивших обслуживание, не конфликтуют: второй дождётся первого
+ * и увидит уже созданную секцию.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletOperationPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "wallet_operation_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'uuuu'm'MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "y\\d{4}m\\d{2}");
+
+    private static final String DEFAULT_PARTITION = PARTITION_PREFIX + "default";
+
+    private static final String LOCK_PARTITIONS = "SELECT pg_advisory_xact_lock(hashtext('wallet_operation'))";
+
+    private static final String FIND_PARTITIONS = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = 'wallet_operation'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Создаёт секцию за месяц, если её ещё нет.
+     * <p>
+     * Если за этот месяц уже есть строки в секции по умолчанию, создать секцию напрямую нельзя:
+     * PostgreSQL отклонит её, так как строки секции по умолчанию нарушили бы новое ограничение.
+     * В этом случае секция по умолчанию отсоединяется, создаётся секция за месяц, строки месяца
+     * переносятся в неё, и секция по умолчанию присоединяется обратно. На время переноса
+     * {@code wallet_operation} заблокирована на запись.
+     *
+     * @param month месяц
+     * @return количество строк, перенесённых из секции по умолчанию
+     */
+    @Transactional
+    public int createMonthlyPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        jdbcTemplate.execute(LOCK_PARTITIONS);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) {
+            return 0;
+        }
+
+        Boolean misplaced = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM %s WHERE created_at >= ? AND created_at < ?)
+                """.formatted(DEFAULT_PARTITION), Boolean.class, from, to);
+        if (!Boolean.TRUE.equals(misplaced)) {
+            jdbcTemplate.execute(createPartition(name, month));
+            return 0;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE wallet_operation DETACH PARTITION " + DEFAULT_PARTITION);
+        jdbcTemplate.execute(createPartition(name, month));
+        int moved = jdbcTemplate.update("""
+                WITH moved AS (
+                    DELETE FROM %s
+                    WHERE created_at >= ? AND created_at < ?
+                    RETURNING *
+                )
+                INSERT INTO %s
+                SELECT * FROM moved
+                """.formatted(DEFAULT_PARTITION, name), from, to);
+        jdbcTemplate.execute("ALTER TABLE wallet_operation ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+        return moved;
+    }
+
+    /**
+     * Возвращает месяцы, за которые существуют секции; секция по умолчанию не учитывается.
+     *
+     * @return месяцы существующих секций
+     */
+    public List<YearMonth> findMonthlyPartitions() {
+        return jdbcTemplate.queryForList(FIND_PARTITIONS, String.class).stream()
+                .map(WalletOperationPartitionRepository::parseMonth)
+                .flatMap(Optional::stream)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Отсоединяет и удаляет секцию за месяц вместе со всеми её строками.
+     *
+     * @param month месяц
+     */
+    @Transactional
+    public void dropMonthlyPartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute(LOCK_PARTITIONS);
+        jdbcTemplate.execute("ALTER TABLE wallet_operation DETACH PARTITION " + name);
+        jdbcTemplate.execute("DROP TABLE " + name);
+    }
+
+    private static String createPartition(String name, YearMonth month) {
+        return """
+                CREATE TABLE %s PARTITION OF wallet_operation
+                FOR VALUES FROM ('%s') TO ('%s')
+                """.formatted(name, month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(month);
+    }
+
+    private static Optional<YearMonth> parseMonth(String name) {
+        if (!PARTITION_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+    }
+}
@@ -0,0 +1,360 @@
+package ru.mishelby.walletapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.ReconciliationReport;
+import ru.mishelby.walletapi.model.enums.DiscrepancyType;
+import ru.mishelby.walletapi.model.enums.ReconciliationStatus;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Таблицы сверки балансов: снимки сверенных балансов, запуски, контрольные точки диапазонов
+ * и найденные расхождения.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletReconciliationRepository {
+
+    private static final String FIND_FIRST_WALLET_ID = """
+            SELECT id FROM wallet ORDER BY id LIMIT 1
+            """;
+
+    private static final String FIND_LAST_WALLET_ID = """
+            SELECT id FROM wallet ORDER BY id DESC LIMIT 1
+            """;
+
+    private static final String FIND_RUNNING_RUN = """
+            SELECT id
+            FROM wallet_reconciliation_run
+            WHERE status = 'RUNNING'
+            ORDER BY started_at DESC
+            LIMIT 1
+            """;
+
+    private static final String FIND_LAST_FINISHED_RUN_START = """
+            SELECT max(started_at)
+            FROM wallet_reconciliation_run
+            WHERE status = 'FINISHED'
+            """;
+
+    private static final String INSERT_RUN = """
+            INSERT INTO wallet_reconciliation_run (id, status, started_at)
+            VALUES (?, 'RUNNING', ?)
+            """;
+
+    private static final String FINISH_RUN = """
+            UPDATE wallet_reconciliation_run
+            SET status = 'FINISHED', finished_at = ?
+            WHERE id = ?
+            """;
+
+    private static final String INSERT_CHECKPOINT = """
+            INSERT INTO wallet_reconciliation_checkpoint
+                (run_id, partition_no, lower_bound, upper_bound, last_wallet_id)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String FIND_OPEN_CHECKPOINTS = """
+            SELECT partition_no, upper_bound, last_wallet_id
+            FROM wallet_reconciliation_checkpoint
+            WHERE run_id = ?
+              AND NOT finished
+            ORDER BY partition_no
+            """;
+
+    private static final String ADVANCE_CHECKPOINT = """
+            UPDATE wallet_reconciliation_checkpoint
+            SET last_wallet_id = ?,
+                checked_wallets = checked_wallets + ?,
+                discrepancies = discrepancies + ?,
+                finished = ?
+            WHERE run_id = ?
+              AND partition_no = ?
+            """;
+
+    private static final String FIND_CHUNK = """
+            SELECT w.id,
+                   w.balance,
+                   s.balance  AS snapshot_balance,
+                   s.last_seq AS snapshot_seq,
+                   s.checksum AS snapshot_checksum,
+                   j.delta    AS journal_delta,
+                   j.last_seq AS journal_seq
+            FROM wallet w
+            LEFT JOIN wallet_reconciliation_snapshot s ON s.wallet_id = w.id
+            LEFT JOIN LATERAL (
+                SELECT sum(o.amount) AS delta, max(o.seq) AS last_seq
+                FROM wallet_operation o
+                WHERE o.wallet_id = w.id
+                  AND o.seq > COALESCE(s.last_seq, 0)
+            ) j ON true
+            WHERE w.id > ?
+              AND w.id <= ?
+            ORDER BY w.id
+            LIMIT ?
+            """;
+
+    private static final String UPSERT_SNAPSHOT = """
+            INSERT INTO wallet_reconciliation_snapshot (wallet_id, balance, last_seq, checksum, reconciled_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (wallet_id) DO UPDATE
+            SET balance = EXCLUDED.balance,
+                last_seq = EXCLUDED.last_seq,
+                checksum = EXCLUDED.checksum,
+                reconciled_at = EXCLUDED.reconciled_at
+            """;
+
+    private static final String DELETE_SNAPSHOT = """
+            DELETE FROM wallet_reconciliation_snapshot WHERE wallet_id = ?
+            """;
+
+    private static final String INSERT_DISCREPANCY = """
+            INSERT INTO wallet_reconciliation_discrepancy
+                (run_id, wallet_id, type, actual_balance, expected_balance, detected_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String FIND_LATEST_RUN = """
+            SELECT r.id,
+                   r.status,
+                   r.started_at,
+                   r.finished_at,
+                   count(c.partition_no)                      AS partitions,
+                   count(c.partition_no) FILTER (WHERE c.finished) AS finished_partitions,
+                   COALESCE(sum(c.checked_wallets), 0)        AS checked_wallets,
+                   COALESCE(sum(c.discrepancies), 0)          AS discrepancies
+            FROM wallet_reconciliation_run r
+            LEFT JOIN wallet_reconciliation_checkpoint c ON c.run_id = r.id
+            GROUP BY r.id
+            ORDER BY r.started_at DESC
+            LIMIT 1
+            """;
+
+    private static final String FIND_DISCREPANCIES = """
+            SELECT wallet_id, type, actual_balance, expected_balance, detected_at
+            FROM wallet_reconciliation_discrepancy
+            WHERE run_id = ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Возвращает минимальный и максимальный идентификаторы кошельков.
+     *
+     * @return пара идентификаторов или пустой результат, если кошельков нет
+     */
+    public Optional<WalletIdBounds> findWalletIdBounds() {
+        List<UUID> first = jdbcTemplate.queryForList(FIND_FIRST_WALLET_ID, UUID.class);
+        if (first.isEmpty()) {
+            return Optional.empty();
+        }
+        UUID last = jdbcTemplate.queryForObject(FIND_LAST_WALLET_ID, UUID.class);
+        return Optional.of(new WalletIdBounds(first.get(0), last));
+    }
+
+    public Optional<UUID> findRunningRun() {
+        return jdbcTemplate.queryForList(FIND_RUNNING_RUN, UUID.class).stream().findFirst();
+    }
+
+    /**
+     * Возвращает время начала последнего завершённого запуска сверки.
+     *
+     * @return время начала или пустой результат, если завершённых запусков нет
+     */
+    public Optional<LocalDateTime> findLastFinishedRunStart() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(FIND_LAST_FINISHED_RUN_START, Timestamp.class))
+                .map(Timestamp::toLocalDateTime);
+    }
+
+    public void insertRun(UUID runID, LocalDateTime startedAt) {
+        jdbcTemplate.update(INSERT_RUN, runID, Timestamp.valueOf(startedAt));
+    }
+
+    public void finishRun(UUID runID, LocalDateTime finishedAt) {
+        jdbcTemplate.update(FINISH_RUN, Timestamp.valueOf(finishedAt), runID);
+    }
+
+    /**
+     * Создаёт контрольные точки диапазонов запуска; курсор каждого диапазона — его нижняя граница.
+     *
+     * @param runID       UUID запуска
+     * @param checkpoints диапазоны запуска
+     */
+    public void insertCheckpoints(UUID runID, List<Checkpoint> checkpoints) {
+        jdbcTemplate.batchUpdate(INSERT_CHECKPOINT, checkpoints, checkpoints.size(), (ps, checkpoint) -> {
+            ps.setObject(1, runID);
+            ps.setInt(2, checkpoint.partitionNo());
+            ps.setObject(3, checkpoint.lastWalletID());
+            ps.setObject(4, checkpoint.upperBound());
+            ps.setObject(5, checkpoint.lastWalletID());
+        });
+    }
+
+    public List<Checkpoint> findOpenCheckpoints(UUID runID) {
+        return jdbcTemplate.query(FIND_OPEN_CHECKPOINTS,
+                (rs, rowNum) -> new Checkpoint(
+                        rs.getInt("partition_no"),
+                        rs.getObject("upper_bound", UUID.class),
+                        rs.getObject("last_wallet_id", UUID.class)),
+                runID);
+    }
+
+    public void advanceCheckpoint(UUID runID, int partitionNo, UUID lastWalletID,
+                                  int checked, int discrepancies, boolean finished) {
+        jdbcTemplate.update(ADVANCE_CHECKPOINT, lastWalletID, checked, discrepancies, finished, runID, partitionNo);
+    }
+
+    /**
+     * Читает следующую порцию кошельков диапазона вместе со снимками и суммой новых записей журнала.
+     * <p>
+     * Журнал читается по индексу {@code (wallet_id, seq)} только после {@code last_seq} снимка,
+     * поэтому повторная сверка обрабатывает лишь операции, выполненные после предыдущей.
+     *
+     * @param after      идентификатор последнего сверенного кошелька
+     * @param upperBound верхняя граница диапазона включительно
+     * @param limit      размер порции
+     * @return строки сверки в порядке {@code id}
+     */
+    public List<ReconciliationRow> findChunk(UUID after, UUID upperBound, int limit) {
+        return jdbcTemplate.query(FIND_CHUNK,
+                (rs, rowNum) -> new ReconciliationRow(
+                        rs.getObject("id", UUID.class),
+                        Money.of(rs.getBigDecimal("balance")),
+                        money(rs, "snapshot_balance"),
+                        (Long) rs.getObject("snapshot_seq"),
+                        (Long) rs.getObject("snapshot_checksum"),
+                        money(rs, "journal_delta"),
+                        (Long) rs.getObject("journal_seq")),
+                after, upperBound, limit);
+    }
+
+    public void upsertSnapshots(List<Snapshot> snapshots, LocalDateTime reconciledAt) {
+        var timestamp = Timestamp.valueOf(reconciledAt);
+        jdbcTemplate.batchUpdate(UPSERT_SNAPSHOT, snapshots, snapshots.size(), (ps, snapshot) -> {
+            ps.setObject(1, snapshot.walletID());
+            ps.setBigDecimal(2, snapshot.balance().toBigDecimal());
+            ps.setLong(3, snapshot.lastSeq());
+            ps.setLong(4, snapshot.checksum());
+            ps.setTimestamp(5, timestamp);
+        });
+    }
+
+    public void deleteSnapshot(UUID walletID) {
+        jdbcTemplate.update(DELETE_SNAPSHOT, walletID);
+    }
+
+    public void insertDiscrepancies(UUID runID, List<ReconciliationReport.Discrepancy> discrepancies) {
+        jdbcTemplate.batchUpdate(INSERT_DISCREPANCY, discrepancies, discrepancies.size(), (ps, discrepancy) -> {
+            ps.setObject(1, runID);
+            ps.setObject(2, discrepancy.walletID());
+            ps.setString(3, discrepancy.type().name());
+            ps.setBigDecimal(4, discrepancy.actualBalance());
+            ps.setBigDecimal(5, discrepancy.expectedBalance());
+            ps.setTimestamp(6, Timestamp.valueOf(discrepancy.detectedAt()));
+        });
+    }
+
+    /**
+     * Собирает отчёт о последнем запуске сверки.
+     *
+     * @param maxDiscrepancies максимальное количество расхождений в отчёте
+     * @return отчёт или пустой результат, если сверка ещё не запускалась
+     */
+    public Optional<ReconciliationReport> findLatestReport(int maxDiscrepancies) {
+        return jdbcTemplate.query(FIND_LATEST_RUN, (rs, rowNum) -> {
+            UUID runID = rs.getObject("id", UUID.class);
+            Timestamp finishedAt = rs.getTimestamp("finished_at");
+            return ReconciliationReport.builder()
+                    .runID(runID)
+                    .status(ReconciliationStatus.valueOf(rs.getString("status")))
+                    .startedAt(rs.getTimestamp("started_at").toLocalDateTime())
+                    .finishedAt(isNull(finishedAt) ? null : finishedAt.toLocalDateTime())
+                    .partitions(rs.getInt("partitions"))
+                    .finishedPartitions(rs.getInt("finished_partitions"))
+                    .checkedWallets(rs.getLong("checked_wallets"))
+                    .discrepancyCount(rs.getLong("discrepancies"))
+                    .discrepancies(findDiscrepancies(runID, maxDiscrepancies))
+                    .build();
+        }).stream().findFirst();
+    }
+
+    private List<ReconciliationReport.Discrepancy> findDiscrepancies(UUID runID, int limit) {
+        return jdbcTemplate.query(FIND_DISCREPANCIES,
+                (rs, rowNum) -> new ReconciliationReport.Discrepancy(
+                        rs.getObject("wallet_id", UUID.class),
+                        DiscrepancyType.valueOf(rs.getString("type")),
+                        rs.getBigDecimal("actual_balance"),
+                        rs.getBigDecimal("expected_balance"),
+                        rs.getTimestamp("detected_at").toLocalDateTime()),
+                runID, limit);
+    }
+
+    private static Money money(ResultSet rs, String column) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(column);
+        return isNull(value) ? null : Money.of(value);
+    }
+
+    /**
+     * Минимальный и максимальный идентификаторы кошельков.
+     *
+     * @param first минимальный идентификатор
+     * @param last  максимальный идентификатор
+     */
+    public record WalletIdBounds(UUID first, UUID last) {
+    }
+
+    /**
+     * Контрольная точка диапазона.
+     *
+     * @param partitionNo  номер диапазона
+     * @param upperBound   верхняя граница диапазона включительно
+     * @param lastWalletID последний сверенный кошелёк (при создании — нижняя граница диапазона)
+     */
+    public record Checkpoint(int partitionNo, UUID upperBound, UUID lastWalletID) {
+    }
+
+    /**
+     * Кошелёк со снимком последней сверки и суммой записей журнала после снимка.
+     *
+     * @param walletID         UUID кошелька
+     * @param balance          текущий баланс
+     * @param snapshotBalance  баланс из снимка ({@code null}, если кошелёк ещё не сверялся)
+     * @param snapshotSeq      последняя учтённая запись журнала из снимка
+     * @param snapshotChecksum контрольная сумма снимка
+     * @param journalDelta     сумма записей журнала после снимка ({@code null}, если их нет)
+     * @param journalSeq       номер последней записи журнала после снимка
+     */
+    public record ReconciliationRow(UUID walletID,
+                                    Money balance,
+                                    Money snapshotBalance,
+                                    Long snapshotSeq,
+                                    Long snapshotChecksum,
+                                    Money journalDelta,
+                                    Long journalSeq) {
+    }
+
+    /**
+     * Снимок сверенного баланса.
+     *
+     * @param walletID UUID кошелька
+     * @param balance  сверенный баланс
+     * @param lastSeq  последняя учтённая запись журнала
+     * @param checksum контрольная сумма снимка
+     */
+    public record Snapshot(UUID walletID, Money balance, long lastSeq, long checksum) {
+    }
+}
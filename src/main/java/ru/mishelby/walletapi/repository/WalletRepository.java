@@ -22,4 +22,7 @@ public interface WalletRepository
             WHERE we.id = :uuid
             """)
     Optional<WalletEntity> findByIdForUpdate(@Param("uuid") UUID walletID);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM wallet)", nativeQuery = true)
+    boolean existsAny();
+}
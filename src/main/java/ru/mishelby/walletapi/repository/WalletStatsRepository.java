@@ -0,0 +1,180 @@
+package ru.mishelby.walletapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.enums.OperationType;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Агрегаты статистики {@code wallet_stats} и {@code wallet_stats_hourly}.
+ * <p>
+ * Экземпляры приложения только прибавляют к агрегатам свои изменения,
+ * поэтому несколько экземпляров не затирают итоги друг друга.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletStatsRepository {
+
+    private static final String FIND_TOTALS = """
+            SELECT wallet_count, total_balance
+            FROM wallet_stats
+            WHERE id = 1
+            """;
+
+    private static final String ADD_TOTALS = """
+            UPDATE wallet_stats
+            SET wallet_count = wallet_count + ?,
+                total_balance = total_balance + ?,
+                updated_at = ?
+            WHERE id = 1
+            RETURNING wallet_count, total_balance
+            """;
+
+    private static final String TRY_LOCK_RECOUNT = "SELECT pg_try_advisory_xact_lock(hashtext('wallet_stats'))";
+
+    private static final String RECOUNT_DUE = """
+            SELECT recounted_at IS NULL OR recounted_at < ?
+            FROM wallet_stats
+            WHERE id = 1
+            FOR UPDATE
+            """;
+
+    private static final String RECOUNT_TOTALS = """
+            UPDATE wallet_stats
+            SET wallet_count = actual.wallet_count,
+                total_balance = actual.total_balance,
+                updated_at = ?,
+                recounted_at = ?
+            FROM (SELECT count(*) AS wallet_count, COALESCE(sum(balance), 0) AS total_balance FROM wallet) actual
+            WHERE id = 1
+            RETURNING wallet_stats.wallet_count, wallet_stats.total_balance
+            """;
+
+    private static final String ADD_HOURLY = """
+            INSERT INTO wallet_stats_hourly (bucket_start, operation_type, operation_count, volume)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (bucket_start, operation_type) DO UPDATE
+            SET operation_count = wallet_stats_hourly.operation_count + excluded.operation_count,
+                volume = wallet_stats_hourly.volume + excluded.volume
+            """;
+
+    private static final String FIND_HOURLY = """
+            SELECT operation_type, sum(operation_count) AS operation_count, sum(volume) AS volume
+            FROM wallet_stats_hourly
+            WHERE bucket_start >= ? AND bucket_start < ?
+            GROUP BY operation_type
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Totals findTotals() {
+        return jdbcTemplate.queryForObject(FIND_TOTALS, (rs, rowNum) ->
+                new Totals(rs.getLong("wallet_count"), Money.of(rs.getBigDecimal("total_balance"))));
+    }
+
+    /**
+     * Прибавляет изменения к общим итогам.
+     *
+     * @param walletCountDelta    изменение количества кошельков
+     * @param totalBalanceDelta   изменение суммы балансов
+     * @param updatedAt           момент сброса
+     * @return итоги после изменения, включая изменения других экземпляров
+     */
+    public Totals addTotals(long walletCountDelta, Money totalBalanceDelta, LocalDateTime updatedAt) {
+        return jdbcTemplate.queryForObject(ADD_TOTALS, (rs, rowNum) ->
+                        new Totals(rs.getLong("wallet_count"), Money.of(rs.getBigDecimal("total_balance"))),
+                walletCountDelta, totalBalanceDelta.toBigDecimal(), Timestamp.valueOf(updatedAt));
+    }
+
+    /**
+     * Берёт блокировку пересчёта до конца текущей транзакции, не дожидаясь её освобождения.
+     * Вызывается в транзакции.
+     *
+     * @return {@code false}, если пересчёт уже выполняет другой экземпляр
+     */
+    public boolean tryLockRecount() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_RECOUNT, Boolean.class));
+    }
+
+    /**
+     * Блокирует строку итогов до конца текущей транзакции: сбросы других экземпляров ждут её окончания.
+     * Вызывается в транзакции.
+     *
+     * @param recountedBefore граница: пересчёт нужен, если последний был раньше неё
+     * @return {@code true}, если итоги ещё не пересчитывались или пересчитаны раньше границы
+     */
+    public boolean isRecountDue(LocalDateTime recountedBefore) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(RECOUNT_DUE, Boolean.class,
+                Timestamp.valueOf(recountedBefore)));
+    }
+
+    /**
+     * Заменяет общие итоги значениями, посчитанными по таблице {@code wallet}.
+     *
+     * @param updatedAt момент пересчёта
+     * @return пересчитанные итоги
+     */
+    public Totals recountTotals(LocalDateTime updatedAt) {
+        return jdbcTemplate.queryForObject(RECOUNT_TOTALS, (rs, rowNum) ->
+                        new Totals(rs.getLong("wallet_count"), Money.of(rs.getBigDecimal("total_balance"))),
+                Timestamp.valueOf(updatedAt), Timestamp.valueOf(updatedAt));
+    }
+
+    /**
+     * Прибавляет почасовые изменения одним пакетом.
+     *
+     * @param deltas изменения по часам и типам операций
+     */
+    public void addHourly(List<HourlyVolume> deltas) {
+        jdbcTemplate.batchUpdate(ADD_HOURLY, deltas, deltas.size(), (ps, delta) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(delta.bucketStart()));
+            ps.setString(2, delta.operationType().name());
+            ps.setLong(3, delta.count());
+            ps.setBigDecimal(4, delta.volume().toBigDecimal());
+        });
+    }
+
+    /**
+     * Суммирует операции по типам за часы {@code [from, to)}.
+     *
+     * @param from начало первого часа
+     * @param to   начало часа, следующего за последним
+     * @return количество и объём по типам операций
+     */
+    public Map<OperationType, HourlyVolume> findHourly(LocalDateTime from, LocalDateTime to) {
+        Map<OperationType, HourlyVolume> volumes = new EnumMap<>(OperationType.class);
+        jdbcTemplate.query(FIND_HOURLY, rs -> {
+            var operationType = OperationType.valueOf(rs.getString("operation_type"));
+            volumes.put(operationType, new HourlyVolume(from, operationType,
+                    rs.getLong("operation_count"), Money.of(rs.getBigDecimal("volume"))));
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return volumes;
+    }
+
+    /**
+     * Общие итоги.
+     *
+     * @param walletCount  количество кошельков
+     * @param totalBalance сумма балансов
+     */
+    public record Totals(long walletCount, Money totalBalance) {
+    }
+
+    /**
+     * Количество и объём операций одного типа за час.
+     *
+     * @param bucketStart   начало часа
+     * @param operationType тип операции
+     * @param count         количество операций
+     * @param volume        объём операций
+     */
+    public record HourlyVolume(LocalDateTime bucketStart, OperationType operationType, long count, Money volume) {
+    }
+}
@@ -0,0 +1,77 @@
+package ru.mishelby.walletapi.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.mishelby.walletapi.model.Money;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Вызов функции PostgreSQL {@code wallet_transfer}.
+ * <p>
+ * Функция блокирует оба кошелька в порядке {@code id}, проверяет заморозку и баланс,
+ * списывает и зачисляет сумму и записывает обе стороны в журнал {@code wallet_operation}
+ * за один сетевой запрос. Ошибки бизнес-правил возвращаются статусом, а не исключением,
+ * чтобы их можно было преобразовать в исключения приложения.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletTransferProcedure {
+
+    private static final String CALL_TRANSFER = """
+            SELECT status, old_balance_from, new_balance_from, new_balance_to
+            FROM wallet_transfer(?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Выполняет перевод в текущей транзакции.
+     *
+     * @param walletIDFrom UUID кошелька-отправителя
+     * @param walletIDTo   UUID кошелька-получателя
+     * @param amount       сумма перевода
+     * @return результат перевода
+     */
+    public TransferResult transfer(UUID walletIDFrom, UUID walletIDTo, Money amount) {
+        return jdbcTemplate.queryForObject(CALL_TRANSFER,
+                (rs, rowNum) -> new TransferResult(
+                        Status.valueOf(rs.getString("status")),
+                        money(rs, "old_balance_from"),
+                        money(rs, "new_balance_from"),
+                        money(rs, "new_balance_to")),
+                walletIDFrom, walletIDTo, amount.toBigDecimal());
+    }
+
+    private static Money money(ResultSet rs, String column) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(column);
+        return isNull(value) ? null : Money.of(value);
+    }
+
+    public enum Status {
+        OK,
+        FROM_NOT_FOUND,
+        TO_NOT_FOUND,
+        FROM_FROZEN,
+        TO_FROZEN,
+        INSUFFICIENT_BALANCE
+    }
+
+    /**
+     * Результат вызова {@code wallet_transfer}.
+     *
+     * @param status         статус перевода
+     * @param oldBalanceFrom баланс отправителя до перевода; для {@link Status#INSUFFICIENT_BALANCE} —
+     *                       доступный баланс с учётом холдов ({@code null}, если отправитель не найден)
+     * @param newBalanceFrom баланс отправителя после перевода ({@code null}, если перевод не выполнен)
+     * @param newBalanceTo   баланс получателя после перевода ({@code null}, если перевод не выполнен)
+     */
+    public record TransferResult(Status status, Money oldBalanceFrom, Money newBalanceFrom, Money newBalanceTo) {
+    }
+}
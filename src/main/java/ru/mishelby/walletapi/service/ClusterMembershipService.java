@@ -0,0 +1,96 @@
+package ru.mishelby.walletapi.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.mishelby.walletapi.config.ClusterProperties;
+import ru.mishelby.walletapi.model.ClusterNode;
+import ru.mishelby.walletapi.model.enums.MembershipSource;
+import ru.mishelby.walletapi.repository.ClusterNodeRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Состав кластера и кольцо согласованного хеширования, по которому определяется владелец кошелька.
+ * <p>
+ * При {@code wallet.cluster.membership=STATIC} кольцо строится один раз из {@code wallet.cluster.members}.
+ * При {@code DATABASE} экземпляр периодически отправляет heartbeat в таблицу {@code cluster_node}
+ * и перестраивает кольцо, когда меняется список живых экземпляров. Если БД недоступна,
+ * используется последнее известное кольцо.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "wallet.cluster", name = "enabled", havingValue = "true")
+public class ClusterMembershipService {
+
+    private final ClusterProperties properties;
+    private final ClusterNodeRepository clusterNodeRepository;
+    private final ClusterNode self;
+    private volatile ConsistentHashRing ring;
+
+    public ClusterMembershipService(ClusterProperties properties, ClusterNodeRepository clusterNodeRepository) {
+        this.properties = properties;
+        this.clusterNodeRepository = clusterNodeRepository;
+        this.self = properties.self();
+
+        List<ClusterNode> members = new ArrayList<>();
+        if (properties.membership() == MembershipSource.STATIC) {
+            members.addAll(properties.members());
+        }
+        if (members.stream().noneMatch(member -> member.id().equals(self.id()))) {
+            members.add(self);
+        }
+        this.ring = new ConsistentHashRing(members, properties.virtualNodes());
+        log.info("[INFO] Cluster node {} started with members {}", self.id(), ring.nodes());
+    }
+
+    /**
+     * Определяет экземпляр-владелец кошелька.
+     *
+     * @param walletID UUID кошелька
+     * @return владелец кошелька
+     */
+    public ClusterNode ownerOf(UUID walletID) {
+        return ring.ownerOf(walletID);
+    }
+
+    public boolean isSelf(ClusterNode node) {
+        return self.id().equals(node.id());
+    }
+
+    /**
+     * Отправляет heartbeat текущего экземпляра и обновляет кольцо по живым экземплярам из БД.
+     */
+    @Scheduled(fixedDelayString = "${wallet.cluster.heartbeat-interval:5s}")
+    public void refresh() {
+        if (properties.membership() != MembershipSource.DATABASE) {
+            return;
+        }
+        try {
+            var now = LocalDateTime.now();
+            clusterNodeRepository.heartbeat(self, now);
+            List<ClusterNode> live = clusterNodeRepository.findLive(now.minus(properties.memberTtl()));
+
+            if (!Set.copyOf(live).equals(Set.copyOf(ring.nodes()))) {
+                ring = new ConsistentHashRing(live, properties.virtualNodes());
+                log.info("[INFO] Cluster membership changed: {}", ring.nodes());
+            }
+        } catch (DataAccessException e) {
+            log.warn("[WARN] Cluster membership refresh failed, keeping members {}", ring.nodes(), e);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (properties.membership() == MembershipSource.DATABASE) {
+            clusterNodeRepository.delete(self.id());
+        }
+    }
+}
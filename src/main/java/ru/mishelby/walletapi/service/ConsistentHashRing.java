@@ -0,0 +1,92 @@
+package ru.mishelby.walletapi.service;
+
+import ru.mishelby.walletapi.model.ClusterNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Кольцо согласованного хеширования идентификаторов кошельков на экземпляры приложения.
+ * <p>
+ * Каждый экземпляр занимает {@code virtualNodes} точек на кольце; кошелёк принадлежит экземпляру
+ * с ближайшей по часовой стрелке точкой. При добавлении или удалении экземпляра меняют владельца
+ * только кошельки его участков — примерно {@code 1/n} всех кошельков.
+ * <p>
+ * Кольцо неизменяемо: при смене состава кластера строится новое.
+ */
+public final class ConsistentHashRing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final NavigableMap<Long, ClusterNode> ring = new TreeMap<>();
+    private final List<ClusterNode> nodes;
+
+    /**
+     * @param nodes        экземпляры кластера
+     * @param virtualNodes количество точек на кольце для каждого экземпляра
+     */
+    public ConsistentHashRing(Collection<ClusterNode> nodes, int virtualNodes) {
+        this.nodes = nodes.stream()
+                .distinct()
+                .sorted(Comparator.comparing(ClusterNode::id))
+                .toList();
+        for (var node : this.nodes) {
+            for (var i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(node.id() + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * Определяет экземпляр-владелец кошелька.
+     *
+     * @param walletID UUID кошелька
+     * @return владелец кошелька
+     * @throws IllegalStateException если кольцо пустое
+     */
+    public ClusterNode ownerOf(UUID walletID) {
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("Cluster ring is empty");
+        }
+        var entry = ring.ceilingEntry(hash(walletID));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @return экземпляры кольца, упорядоченные по идентификатору
+     */
+    public List<ClusterNode> nodes() {
+        return nodes;
+    }
+
+    static long hash(UUID walletID) {
+        return mix(walletID.getMostSignificantBits() ^ mix(walletID.getLeastSignificantBits()));
+    }
+
+    static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Финализатор MurmurHash3: равномерно перемешивает биты, в том числе у UUIDv7 с монотонным началом.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
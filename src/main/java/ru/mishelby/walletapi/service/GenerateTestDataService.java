@@ -2,30 +2,49 @@ package ru.mishelby.walletapi.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import ru.mishelby.walletapi.config.TestDataProperties;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.Money;
 import ru.mishelby.walletapi.model.WalletEntity;
+import ru.mishelby.walletapi.repository.WalletJdbcRepository;
 import ru.mishelby.walletapi.repository.WalletRepository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-
-import static ru.mishelby.walletapi.utils.TestDataConstantValue.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Сервис для генерации тестовых данных в базе данных.
  * <p>
  * Создаёт тестовые кошельки со случайным балансом и датами, если таблица кошельков пуста.
+ * Количество кошельков, распределение балансов и сроков действия, размер пакета
+ * и число параллельных производителей задаются в {@link TestDataProperties}.
+ * <p>
+ * Строки вставляются пакетами через {@link WalletJdbcRepository} в обход JPA,
+ * каждый пакет — в отдельной транзакции. Пакеты выполняются на {@code applicationTaskExecutor}
+ * (на виртуальных потоках, если они включены), одновременно — не больше {@code preload.threads}.
+ * По окончании в лог выводится скорость вставки.
  * <p>
  * Генерация выполняется автоматически при старте приложения, если включена соответствующая
- * настройка в {@code application.properties}:
+ * настройка в {@code application.yaml}:
  * <pre>
- * preload.test-data=true
+ * preload:
+ *   test-data: true
+ *   wallet-count: 1000000
+ *   batch-size: 1000
+ *   threads: 8
+ *   balance-distribution: EXPONENTIAL
  * </pre>
  * <p>
  * Реализует {@link org.springframework.boot.CommandLineRunner}, поэтому метод {@link #run(String...)}
@@ -35,10 +54,15 @@ import static ru.mishelby.walletapi.utils.TestDataConstantValue.*;
 @Service
 @RequiredArgsConstructor
 @ConditionalOnProperty(prefix = "preload", name = "test-data", havingValue = "true")
-public class GenerateTestDataService implements CommandLineRunner{
-    private static final Random RANDOM = new  Random();
+public class GenerateTestDataService implements CommandLineRunner {
+    private static final long MINOR_UNITS_PER_UNIT = 100L;
+    private static final double EXPONENTIAL_SCALE = 5.0;
 
     private final WalletRepository walletRepository;
+    private final WalletJdbcRepository walletJdbcRepository;
+    private final TestDataProperties properties;
+    @Qualifier("applicationTaskExecutor")
+    private final AsyncTaskExecutor taskExecutor;
 
     /**
      * Метод запускается после старта приложения и вызывает генерацию тестовых кошельков.
@@ -47,30 +71,97 @@ public class GenerateTestDataService implements CommandLineRunner{
      * @throws Exception если при генерации данных произошла ошибка
      */
     @Override
-    @Transactional
     public void run(String... args) throws Exception {
         generateWallets();
     }
 
     /**
-     * Генерирует 50 тестовых кошельков со случайными параметрами:
+     * Генерирует {@code preload.wallet-count} тестовых кошельков со случайными параметрами:
      * <ul>
-     *     <li>Баланс: случайное значение от 100 до 5000</li>
+     *     <li>Баланс: по распределению {@code preload.balance-distribution}
+     *     в диапазоне {@code [balance-min, balance-max)}</li>
      *     <li>Дата создания: текущий момент</li>
-     *     <li>Срок действия: текущий месяц + случайное количество месяцев до 24</li>
+     *     <li>Срок действия: текущий месяц + случайное количество месяцев до {@code expiration-months-max}</li>
      * </ul>
      * <p>
      * Генерация выполняется только если таблица кошельков пуста.
+     *
+     * @throws InterruptedException если поток прерван во время ожидания производителей
      */
-    public void generateWallets() {
-        List<WalletEntity> allWallets = walletRepository.findAll();
-        if (allWallets.isEmpty()) {
-            for (var i = 0; i < COUNT_OF_ITERATION; i++) {
-                var walletEntity = new WalletEntity();
-                walletEntity.setBalance(BigDecimal.valueOf(RANDOM.nextInt(ORIGIN, BOUND)));
-                walletEntity.setCreatedAt(LocalDateTime.now());
-                walletEntity.setExpirationDate(YearMonth.now().plusMonths(RANDOM.nextInt(BOUND_NEXT_INT)));
-                walletRepository.save(walletEntity);
+    public void generateWallets() throws InterruptedException {
+        if (walletRepository.existsAny()) {
+            log.info("[INFO] Wallet table is not empty, test data generation skipped");
+            return;
+        }
+
+        int walletCount = properties.walletCount();
+        int batchSize = properties.batchSize();
+        int batches = (walletCount + batchSize - 1) / batchSize;
+
+        log.info("[INFO] Generating {} wallets in {} batches with {} threads",
+                walletCount, batches, properties.threads());
+
+        long startedAt = System.nanoTime();
+        var producers = new Semaphore(properties.threads());
+        List<Future<?>> futures = new ArrayList<>(batches);
+        for (var batch = 0; batch < batches; batch++) {
+            int size = Math.min(batchSize, walletCount - batch * batchSize);
+            producers.acquire();
+            futures.add(taskExecutor.submit(() -> {
+                try {
+                    walletJdbcRepository.batchInsert(createBatch(size));
+                } finally {
+                    producers.release();
+                }
+            }));
+        }
+        awaitAll(futures);
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        log.info("[INFO] Generated {} wallets in {} ms ({} rows/s)",
+                walletCount,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                Math.round(walletCount / seconds));
+    }
+
+    private List<WalletEntity> createBatch(int size) {
+        var random = ThreadLocalRandom.current();
+        var now = LocalDateTime.now();
+        var currentMonth = YearMonth.now();
+
+        List<WalletEntity> batch = new ArrayList<>(size);
+        for (var i = 0; i < size; i++) {
+            var walletEntity = new WalletEntity();
+            walletEntity.setBalance(nextBalance(random));
+            walletEntity.setCreatedAt(now);
+            walletEntity.setExpirationDate(currentMonth.plusMonths(random.nextInt(properties.expirationMonthsMax())));
+            batch.add(walletEntity);
+        }
+        return batch;
+    }
+
+    private Money nextBalance(ThreadLocalRandom random) {
+        long min = properties.balanceMin() * MINOR_UNITS_PER_UNIT;
+        long max = properties.balanceMax() * MINOR_UNITS_PER_UNIT;
+
+        return switch (properties.balanceDistribution()) {
+            case UNIFORM -> Money.ofMinor(random.nextLong(min, max));
+            case EXPONENTIAL -> {
+                double mean = (max - min) / EXPONENTIAL_SCALE;
+                long offset = (long) (-Math.log(1.0 - random.nextDouble()) * mean);
+                yield Money.ofMinor(min + Math.min(offset, max - min - 1));
+            }
+        };
+    }
+
+    private static void awaitAll(List<Future<?>> futures) throws InterruptedException {
+        for (var future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("[ERROR] Test data batch failed", e.getCause());
+                throw new WalletOperationException("Test data generation failed", e.getCause());
             }
         }
     }
@@ -0,0 +1,81 @@
+package ru.mishelby.walletapi.service;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Деление отрезка идентификаторов на диапазоны примерно равной ширины.
+ * <p>
+ * UUID рассматривается как беззнаковое 128-битное число, что совпадает с порядком {@code uuid}
+ * в PostgreSQL. Делится отрезок между фактическими минимальным и максимальным идентификаторами,
+ * а не всё пространство UUID: идентификаторы UUIDv7 упорядочены по времени и занимают малую его часть.
+ */
+final class UuidRangePartitioner {
+
+    private static final BigInteger UNSIGNED_LONG = BigInteger.ONE.shiftLeft(Long.SIZE);
+
+    private UuidRangePartitioner() {
+    }
+
+    /**
+     * Делит отрезок {@code [first, last]} на не более чем {@code partitions} непересекающихся диапазонов.
+     *
+     * @param first      минимальный идентификатор
+     * @param last       максимальный идентификатор
+     * @param partitions желаемое количество диапазонов
+     * @return диапазоны в порядке возрастания, покрывающие весь отрезок
+     */
+    static List<UuidRange> split(UUID first, UUID last, int partitions) {
+        BigInteger lower = toUnsigned(first).subtract(BigInteger.ONE).max(BigInteger.ZERO);
+        BigInteger upper = toUnsigned(last);
+        BigInteger span = upper.subtract(lower);
+        BigInteger count = BigInteger.valueOf(Math.max(1, partitions));
+
+        List<UuidRange> ranges = new ArrayList<>(partitions);
+        BigInteger previous = lower;
+        for (var i = 1; i <= count.intValue(); i++) {
+            BigInteger bound = i == count.intValue()
+                    ? upper
+                    : lower.add(span.multiply(BigInteger.valueOf(i)).divide(count));
+            if (bound.compareTo(previous) > 0) {
+                ranges.add(new UuidRange(toUuid(previous), toUuid(bound)));
+                previous = bound;
+            }
+        }
+        return ranges;
+    }
+
+    static BigInteger toUnsigned(UUID uuid) {
+        BigInteger high = BigInteger.valueOf(uuid.getMostSignificantBits());
+        BigInteger low = BigInteger.valueOf(uuid.getLeastSignificantBits());
+        if (high.signum() < 0) {
+            high = high.add(UNSIGNED_LONG);
+        }
+        if (low.signum() < 0) {
+            low = low.add(UNSIGNED_LONG);
+        }
+        return high.shiftLeft(Long.SIZE).or(low);
+    }
+
+    static UUID toUuid(BigInteger value) {
+        var buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        byte[] bytes = value.toByteArray();
+        int length = Math.min(bytes.length, buffer.capacity());
+        buffer.position(buffer.capacity() - length);
+        buffer.put(bytes, bytes.length - length, length);
+        buffer.flip();
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Диапазон идентификаторов {@code (lowerExclusive, upperInclusive]}.
+     *
+     * @param lowerExclusive нижняя граница, не входит в диапазон
+     * @param upperInclusive верхняя граница, входит в диапазон
+     */
+    record UuidRange(UUID lowerExclusive, UUID upperInclusive) {
+    }
+}
@@ -0,0 +1,283 @@
+package ru.mishelby.walletapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.mishelby.walletapi.config.AuditLogProperties;
+import ru.mishelby.walletapi.model.enums.AuditOverflowPolicy;
+import ru.mishelby.walletapi.repository.WalletOperationJournal.Entry;
+import ru.mishelby.walletapi.utils.MpscRingBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Асинхронный журнал аудита операций с кошельками.
+ * <p>
+ * Записи {@link ru.mishelby.walletapi.repository.WalletOperationJournal} после фиксации транзакции
+ * публикуются в неблокирующий кольцевой буфер {@link MpscRingBuffer}: поток операции не выполняет
+ * ввод-вывод и не берёт блокировок. Единственный фоновый поток {@code wallet-audit-writer} забирает
+ * события пакетами до {@code wallet.audit.batch-size} и дописывает их одной записью в
+ * {@code wallet-audit.log} через {@link FileChannel}. Формат — одна JSON-строка на событие.
+ * <p>
+ * Файл ротируется по достижении {@code wallet.audit.max-file-size}: текущий переименовывается
+ * в {@code wallet-audit-<время>.log}, хранятся последние {@code wallet.audit.max-files} файлов.
+ * <p>
+ * Поведение при заполненном буфере задаёт {@link AuditOverflowPolicy}. Метрики:
+ * <ul>
+ *     <li>{@code wallet.audit.published} — события, принятые в буфер</li>
+ *     <li>{@code wallet.audit.dropped} — события, отброшенные из-за заполненного буфера</li>
+ *     <li>{@code wallet.audit.blocked} — ожидания производителей при политике {@code BLOCK} и их длительность</li>
+ *     <li>{@code wallet.audit.written} — события, записанные в файл</li>
+ *     <li>{@code wallet.audit.write.failed} — события, потерянные из-за ошибки записи</li>
+ *     <li>{@code wallet.audit.buffer.size} — заполненность буфера</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class WalletAuditLog {
+
+    static final String CURRENT_FILE = "wallet-audit.log";
+
+    private static final String ROTATED_PREFIX = "wallet-audit-";
+    private static final String ROTATED_SUFFIX = ".log";
+    private static final DateTimeFormatter ROTATED_FORMAT =
+            DateTimeFormatter.ofPattern("uuuuMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+    private static final int MAX_EVENT_BYTES = 512;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AuditLogProperties properties;
+    private final MpscRingBuffer<Event> buffer;
+    private final Counter published;
+    private final Counter dropped;
+    private final Timer blocked;
+    private final Counter written;
+    private final Counter writeFailed;
+
+    private final StringBuilder line = new StringBuilder(MAX_EVENT_BYTES);
+    private final ByteBuffer batch;
+    private FileChannel channel;
+    private long fileSize;
+    private volatile boolean running;
+    private Thread writer;
+
+    public WalletAuditLog(AuditLogProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buffer = new MpscRingBuffer<>(properties.bufferSize());
+        this.batch = ByteBuffer.allocateDirect(properties.batchSize() * MAX_EVENT_BYTES);
+        this.published = meterRegistry.counter("wallet.audit.published");
+        this.dropped = meterRegistry.counter("wallet.audit.dropped");
+        this.blocked = meterRegistry.timer("wallet.audit.blocked");
+        this.written = meterRegistry.counter("wallet.audit.written");
+        this.writeFailed = meterRegistry.counter("wallet.audit.write.failed");
+        meterRegistry.gauge("wallet.audit.buffer.size", buffer, MpscRingBuffer::size);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!properties.enabled()) {
+            log.info("[INFO] Audit log is disabled");
+            return;
+        }
+        Files.createDirectories(properties.directory());
+        openCurrentFile();
+
+        running = true;
+        writer = Thread.ofPlatform().name("wallet-audit-writer").daemon().start(this::writeLoop);
+        log.info("[INFO] Audit log started in {} with {} policy", properties.directory(), properties.overflowPolicy());
+    }
+
+    /**
+     * Останавливает запись, дописав в файл события, оставшиеся в буфере.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        closeCurrentFile();
+    }
+
+    /**
+     * Публикует записи журнала после фиксации текущей транзакции; без транзакции — сразу.
+     * При откате транзакции события не публикуются.
+     *
+     * @param entries записи журнала операций
+     */
+    public void publishAfterCommit(List<Entry> entries) {
+        if (!properties.enabled() || entries.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(entries);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(entries);
+            }
+        });
+    }
+
+    private void publish(List<Entry> entries) {
+        long occurredAt = System.currentTimeMillis();
+        for (var entry : entries) {
+            var event = new Event(occurredAt, entry);
+            if (buffer.offer(event) || offerOnOverflow(event)) {
+                published.increment();
+            } else {
+                dropped.increment();
+            }
+        }
+        if (buffer.size() > buffer.capacity() / 2) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private boolean offerOnOverflow(Event event) {
+        LockSupport.unpark(writer);
+        if (properties.overflowPolicy() == AuditOverflowPolicy.DROP) {
+            return false;
+        }
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + properties.blockTimeout().toNanos();
+        try {
+            while (System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (buffer.offer(event)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            blocked.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void writeLoop() {
+        long idleNanos = properties.flushInterval().toNanos();
+        while (running || buffer.size() > 0) {
+            int drained = buffer.drain(this::encode, properties.batchSize());
+            if (drained == 0) {
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            writeBatch(drained);
+        }
+    }
+
+    private void encode(Event event) {
+        var entry = event.entry();
+        line.setLength(0);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.occurredAt()))
+                .append("\",\"type\":\"").append(entry.operationType())
+                .append("\",\"wallet\":\"").append(entry.walletId()).append('"');
+        if (entry.counterpartyId() != null) {
+            line.append(",\"counterparty\":\"").append(entry.counterpartyId()).append('"');
+        }
+        line.append(",\"amount\":").append(entry.amount().toBigDecimal().toPlainString())
+                .append(",\"balance\":").append(entry.newBalance().toBigDecimal().toPlainString())
+                .append("}\n");
+        batch.put(line.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void writeBatch(int events) {
+        batch.flip();
+        try {
+            if (channel == null) {
+                openCurrentFile();
+            }
+            while (batch.hasRemaining()) {
+                fileSize += channel.write(batch);
+            }
+            if (properties.fsync()) {
+                channel.force(false);
+            }
+            written.increment(events);
+        } catch (IOException e) {
+            log.error("[ERROR] Audit log write failed, {} events lost", events, e);
+            writeFailed.increment(events);
+            closeCurrentFile();
+            return;
+        } finally {
+            batch.clear();
+        }
+
+        if (fileSize >= properties.maxFileSize().toBytes()) {
+            try {
+                rotate();
+            } catch (IOException e) {
+                log.error("[ERROR] Audit log rotation failed", e);
+                closeCurrentFile();
+            }
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeCurrentFile();
+        var rotated = properties.directory().resolve(
+                ROTATED_PREFIX + ROTATED_FORMAT.format(Instant.now()) + ROTATED_SUFFIX);
+        Files.move(properties.directory().resolve(CURRENT_FILE), rotated);
+        log.info("[INFO] Audit log rotated to {}", rotated.getFileName());
+
+        try (Stream<Path> files = Files.list(properties.directory())) {
+            List<Path> rotatedFiles = files
+                    .filter(path -> {
+                        var name = path.getFileName().toString();
+                        return name.startsWith(ROTATED_PREFIX) && name.endsWith(ROTATED_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+            for (var i = 0; i < rotatedFiles.size() - properties.maxFiles(); i++) {
+                Files.deleteIfExists(rotatedFiles.get(i));
+            }
+        }
+        openCurrentFile();
+    }
+
+    private void openCurrentFile() throws IOException {
+        channel = FileChannel.open(properties.directory().resolve(CURRENT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+
+    private void closeCurrentFile() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("[WARN] Failed to close audit log file", e);
+        }
+        channel = null;
+    }
+
+    /**
+     * Событие аудита: запись журнала и момент фиксации её транзакции.
+     */
+    private record Event(long occurredAt, Entry entry) {
+    }
+}
@@ -0,0 +1,86 @@
+package ru.mishelby.walletapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.mishelby.walletapi.config.ExpirySweeperProperties;
+import ru.mishelby.walletapi.model.converter.YearMonthConverter;
+import ru.mishelby.walletapi.repository.WalletJdbcRepository;
+import ru.mishelby.walletapi.repository.WalletJdbcRepository.ExpiredWalletKey;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Плановая заморозка кошельков с истёкшим сроком действия.
+ * <p>
+ * Истёкшие кошельки выбираются порциями по ключу {@code (expiration_date, id)}
+ * без блокировок, затем каждая порция замораживается отдельным коротким запросом.
+ * Строки, занятые текущими операциями, пропускаются и обрабатываются при следующем запуске,
+ * поэтому проход никогда не держит длинных блокировок на таблице.
+ * <p>
+ * Включается настройкой:
+ * <pre>
+ * wallet:
+ *   expiry-sweeper:
+ *     enabled: true
+ *     cron: "0 5 0 * * *"
+ *     chunk-size: 500
+ *     pause: 50ms
+ * </pre>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wallet.expiry-sweeper", name = "enabled", havingValue = "true")
+public class WalletExpirySweeper {
+
+    private final WalletJdbcRepository walletJdbcRepository;
+    private final ExpirySweeperProperties properties;
+
+    /**
+     * Замораживает все кошельки, срок действия которых закончился до текущего месяца.
+     *
+     * @return количество замороженных кошельков
+     */
+    @Scheduled(cron = "${wallet.expiry-sweeper.cron:0 5 0 * * *}")
+    public int sweep() {
+        int currentMonth = YearMonthConverter.toMonthNumber(YearMonth.now());
+        var cursor = ExpiredWalletKey.START;
+        int frozen = 0;
+
+        log.info("[INFO] Expiry sweep started");
+        while (true) {
+            List<ExpiredWalletKey> chunk = walletJdbcRepository.findExpiredChunk(
+                    currentMonth, cursor, properties.chunkSize());
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            List<UUID> walletIDs = chunk.stream().map(ExpiredWalletKey::id).toList();
+            frozen += walletJdbcRepository.freeze(walletIDs);
+            cursor = chunk.get(chunk.size() - 1);
+
+            if (chunk.size() < properties.chunkSize() || !pause()) {
+                break;
+            }
+        }
+
+        log.info("[INFO] Expiry sweep finished, {} wallets frozen", frozen);
+        return frozen;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.pause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[WARN] Expiry sweep interrupted");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.mishelby.walletapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mishelby.walletapi.config.WalletHoldProperties;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.WalletHoldEntity;
+import ru.mishelby.walletapi.model.enums.HoldStatus;
+import ru.mishelby.walletapi.repository.WalletHoldRepository;
+import ru.mishelby.walletapi.repository.WalletJdbcRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Плановое освобождение просроченных холдов.
+ * <p>
+ * Холды обрабатываются порциями, каждая — в отдельной короткой транзакции. Порция выбирается
+ * с {@code FOR UPDATE SKIP LOCKED}, поэтому холды, которые сейчас списываются или освобождаются
+ * через API, пропускаются. Освобождаемые суммы объединяются по кошелькам и вычитаются из
+ * {@code held_balance} одним JDBC-пакетом в порядке {@link WalletRules#LOCK_ORDER}.
+ * <p>
+ * Настройки:
+ * <pre>
+ * wallet:
+ *   holds:
+ *     reaper-enabled: true
+ *     reaper-delay: 30s
+ *     reaper-batch-size: 200
+ * </pre>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wallet.holds", name = "reaper-enabled", havingValue = "true", matchIfMissing = true)
+public class WalletHoldReaper {
+
+    private final WalletHoldRepository walletHoldRepository;
+    private final WalletJdbcRepository walletJdbcRepository;
+    private final WalletHoldProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Освобождает все холды, срок жизни которых истёк.
+     *
+     * @return количество освобождённых холдов
+     */
+    @Scheduled(fixedDelayString = "${wallet.holds.reaper-delay:30s}")
+    public int reap() {
+        int expired = 0;
+        while (true) {
+            Integer released = transactionTemplate.execute(status -> reapBatch());
+            expired += released;
+            if (released < properties.reaperBatchSize()) {
+                break;
+            }
+        }
+
+        if (expired > 0) {
+            log.info("[INFO] {} expired holds released", expired);
+        }
+        return expired;
+    }
+
+    private int reapBatch() {
+        var now = LocalDateTime.now();
+        List<WalletHoldEntity> holds = walletHoldRepository.findExpiredForUpdate(now, properties.reaperBatchSize());
+        if (holds.isEmpty()) {
+            return 0;
+        }
+
+        SortedMap<UUID, Money> releases = new TreeMap<>(WalletRules.LOCK_ORDER);
+        for (var hold : holds) {
+            releases.merge(hold.getWalletId(), hold.getAmount(), Money::plus);
+            WalletHoldService.finish(hold, HoldStatus.EXPIRED);
+        }
+        walletJdbcRepository.batchReleaseHeld(releases);
+
+        return holds.size();
+    }
+}
@@ -0,0 +1,219 @@
+package ru.mishelby.walletapi.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mishelby.walletapi.config.WalletHoldProperties;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.HoldCaptureRequest;
+import ru.mishelby.walletapi.model.HoldRequest;
+import ru.mishelby.walletapi.model.HoldResponse;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.WalletEntity;
+import ru.mishelby.walletapi.model.WalletHoldEntity;
+import ru.mishelby.walletapi.model.enums.HoldStatus;
+import ru.mishelby.walletapi.repository.WalletHoldRepository;
+import ru.mishelby.walletapi.repository.WalletOperationJournal;
+import ru.mishelby.walletapi.repository.WalletOperationJournal.Entry;
+import ru.mishelby.walletapi.utils.RepositoryHelper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static ru.mishelby.walletapi.model.enums.OperationType.HOLD_CAPTURE;
+
+/**
+ * Сервис холдов — резервирования средств на кошельке с последующим списанием или освобождением.
+ * <p>
+ * Каждый шаг выполняется отдельной короткой транзакцией:
+ * <ul>
+ *     <li>reserve — блокирует кошелёк, проверяет доступный баланс и увеличивает {@code held_balance}</li>
+ *     <li>capture — списывает зарезервированную сумму и зачисляет её на кошелёк получателя</li>
+ *     <li>release — возвращает зарезервированную сумму в доступный баланс</li>
+ * </ul>
+ * Доступный баланс считается как {@code balance - held_balance}. Сумма активных холдов хранится
+ * в строке кошелька и меняется вместе с холдом, поэтому проверки не суммируют таблицу {@code wallet_hold}.
+ * Просроченные холды освобождает {@link WalletHoldReaper}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletHoldService {
+
+    private final RepositoryHelper repositoryHelper;
+    private final WalletHoldRepository walletHoldRepository;
+    private final WalletOperationJournal walletOperationJournal;
+    private final WalletHoldProperties properties;
+
+    /**
+     * Резервирует сумму на кошельке.
+     *
+     * @param walletID    UUID кошелька
+     * @param holdRequest объект запроса с суммой и сроком жизни холда
+     * @return {@link HoldResponse} созданного холда
+     * @throws WalletOperationException если кошелёк заморожен, недостаточно средств
+     *                                  или срок жизни превышает допустимый
+     */
+    @Transactional
+    public HoldResponse reserve(UUID walletID, HoldRequest holdRequest) {
+        Money amount = Money.of(holdRequest.amount());
+        WalletRules.requireNonNegativeAmount(amount);
+        Duration ttl = getTtl(holdRequest);
+
+        var walletEntity = repositoryHelper.findWalletForUpdateByID(walletID);
+
+        WalletService.checkWalletNotFrozen(walletEntity);
+        WalletService.checkWalletFromBalance(walletID, walletEntity, amount);
+
+        walletEntity.setHeldBalance(walletEntity.getHeldBalance().plus(amount));
+
+        var now = LocalDateTime.now();
+        var holdEntity = new WalletHoldEntity();
+        holdEntity.setWalletId(walletID);
+        holdEntity.setAmount(amount);
+        holdEntity.setStatus(HoldStatus.ACTIVE);
+        holdEntity.setCreatedAt(now);
+        holdEntity.setExpiresAt(now.plus(ttl));
+        var savedHold = walletHoldRepository.save(holdEntity);
+
+        log.info("[INFO] Hold {} reserved on wallet {}", savedHold.getId(), walletID);
+        return getHoldResponse(savedHold, walletEntity);
+    }
+
+    /**
+     * Списывает зарезервированную сумму и зачисляет её на кошелёк получателя.
+     * <p>
+     * Кошельки блокируются в порядке {@link WalletRules#LOCK_ORDER}.
+     *
+     * @param holdID         UUID холда
+     * @param captureRequest объект запроса с UUID кошелька-получателя
+     * @return {@link HoldResponse} списанного холда
+     * @throws EntityNotFoundException  если холд или кошелёк не найден
+     * @throws WalletOperationException если холд не активен, истёк или кошелёк заморожен
+     */
+    @Transactional
+    public HoldResponse capture(UUID holdID, HoldCaptureRequest captureRequest) {
+        var holdEntity = findActiveHoldForUpdate(holdID);
+        UUID walletID = holdEntity.getWalletId();
+        UUID walletIDTo = captureRequest.walletIDTo();
+
+        if (holdEntity.getExpiresAt().isBefore(LocalDateTime.now())) {
+            log.error("[ERROR] Hold has expired!");
+            throw new WalletOperationException("Hold has expired! Hold ID %s".formatted(holdID));
+        }
+        if (walletID.equals(walletIDTo)) {
+            log.error("[ERROR] Hold capture to the source wallet!");
+            throw new WalletOperationException("Hold capture to the source wallet is not allowed! Wallet ID %s"
+                    .formatted(walletID));
+        }
+
+        WalletEntity walletEntityFrom;
+        WalletEntity walletEntityTo;
+        if (WalletRules.LOCK_ORDER.compare(walletID, walletIDTo) < 0) {
+            walletEntityFrom = repositoryHelper.findWalletForUpdateByID(walletID);
+            walletEntityTo = repositoryHelper.findWalletForUpdateByID(walletIDTo);
+        } else {
+            walletEntityTo = repositoryHelper.findWalletForUpdateByID(walletIDTo);
+            walletEntityFrom = repositoryHelper.findWalletForUpdateByID(walletID);
+        }
+
+        WalletService.checkWalletNotFrozen(walletEntityFrom);
+        WalletService.checkWalletNotFrozen(walletEntityTo);
+
+        Money amount = holdEntity.getAmount();
+        Money oldBalanceFrom = walletEntityFrom.getBalance();
+        Money oldBalanceTo = walletEntityTo.getBalance();
+        walletEntityFrom.setBalance(oldBalanceFrom.minus(amount));
+        walletEntityFrom.setHeldBalance(walletEntityFrom.getHeldBalance().minus(amount));
+        walletEntityTo.setBalance(oldBalanceTo.plus(amount));
+
+        walletOperationJournal.append(List.of(
+                new Entry(walletID, walletIDTo, HOLD_CAPTURE, oldBalanceFrom, walletEntityFrom.getBalance()),
+                new Entry(walletIDTo, walletID, HOLD_CAPTURE, oldBalanceTo, walletEntityTo.getBalance())));
+
+        finish(holdEntity, HoldStatus.CAPTURED);
+
+        log.info("[INFO] Hold {} captured to wallet {}", holdID, walletIDTo);
+        return getHoldResponse(holdEntity, walletEntityFrom);
+    }
+
+    /**
+     * Освобождает зарезервированную сумму.
+     *
+     * @param holdID UUID холда
+     * @return {@link HoldResponse} освобождённого холда
+     * @throws EntityNotFoundException  если холд не найден
+     * @throws WalletOperationException если холд не активен
+     */
+    @Transactional
+    public HoldResponse release(UUID holdID) {
+        var holdEntity = findActiveHoldForUpdate(holdID);
+        var walletEntity = repositoryHelper.findWalletForUpdateByID(holdEntity.getWalletId());
+
+        walletEntity.setHeldBalance(walletEntity.getHeldBalance().minus(holdEntity.getAmount()));
+        finish(holdEntity, HoldStatus.RELEASED);
+
+        log.info("[INFO] Hold {} released", holdID);
+        return getHoldResponse(holdEntity, walletEntity);
+    }
+
+    /**
+     * Блокирует холд и проверяет, что он ещё активен.
+     *
+     * @param holdID UUID холда
+     * @return заблокированная сущность холда
+     * @throws EntityNotFoundException  если холд не найден
+     * @throws WalletOperationException если холд уже списан, освобождён или истёк
+     */
+    private WalletHoldEntity findActiveHoldForUpdate(UUID holdID) {
+        var holdEntity = walletHoldRepository.findByIdForUpdate(holdID).orElseThrow(() -> {
+            log.error("[ERROR] Hold Not Found For UUID {}", holdID);
+            return new EntityNotFoundException("Hold Not Found For UUID %s".formatted(holdID));
+        });
+        if (holdEntity.getStatus() != HoldStatus.ACTIVE) {
+            log.error("[ERROR] Hold is not active!");
+            throw new WalletOperationException("Hold is %s! Hold ID %s".formatted(holdEntity.getStatus(), holdID));
+        }
+        return holdEntity;
+    }
+
+    /**
+     * Определяет срок жизни холда: из запроса или по умолчанию.
+     *
+     * @param holdRequest объект запроса
+     * @return срок жизни холда
+     * @throws WalletOperationException если срок жизни больше {@code wallet.holds.max-ttl}
+     */
+    private Duration getTtl(HoldRequest holdRequest) {
+        if (holdRequest.ttlSeconds() == null) {
+            return properties.defaultTtl();
+        }
+        var ttl = Duration.ofSeconds(holdRequest.ttlSeconds());
+        if (ttl.compareTo(properties.maxTtl()) > 0) {
+            log.error("[ERROR] Hold TTL is too long!");
+            throw new WalletOperationException("Hold TTL must not exceed %d seconds"
+                    .formatted(properties.maxTtl().toSeconds()));
+        }
+        return ttl;
+    }
+
+    static void finish(WalletHoldEntity holdEntity, HoldStatus status) {
+        holdEntity.setStatus(status);
+        holdEntity.setFinishedAt(LocalDateTime.now());
+    }
+
+    private static HoldResponse getHoldResponse(WalletHoldEntity holdEntity, WalletEntity walletEntity) {
+        return HoldResponse.builder()
+                .holdID(holdEntity.getId())
+                .walletID(holdEntity.getWalletId())
+                .amount(holdEntity.getAmount().toBigDecimal())
+                .status(holdEntity.getStatus())
+                .expiresAt(holdEntity.getExpiresAt())
+                .availableBalance(walletEntity.getAvailableBalance().toBigDecimal())
+                .build();
+    }
+}
@@ -0,0 +1,220 @@
+package ru.mishelby.walletapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mishelby.walletapi.config.WalletIdFilterProperties;
+import ru.mishelby.walletapi.model.generator.UuidV7Generator;
+import ru.mishelby.walletapi.utils.UuidBloomFilter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Фильтр Блума идентификаторов существующих кошельков.
+ * <p>
+ * Запросы с несуществующими UUID (боты, ошибки клиентов) отклоняются в
+ * {@link ru.mishelby.walletapi.utils.RepositoryHelper} без запроса к базе данных. Существующий кошелёк
+ * фильтр не отклоняет никогда; неизвестный пропускает к БД с вероятностью {@code false-positive-rate}.
+ * <p>
+ * Фильтр строится после старта приложения потоковым чтением идентификаторов из таблицы {@code wallet}
+ * и перестраивается каждые {@code rebuild-interval} с размером под текущее количество кошельков.
+ * Пока фильтр не построен, пропускаются все идентификаторы. Новые кошельки добавляются при создании:
+ * до фиксации транзакции — чтобы кошелёк не отклонялся сразу после создания, и после фиксации — чтобы
+ * он попал в фильтр, перестраиваемый параллельно с созданием.
+ * <p>
+ * Фильтр локален для узла: кошелёк, созданный на другом узле после построения, в него не попадает.
+ * Поэтому фильтр отклоняет только UUIDv7, которые заведомо были зафиксированы до чтения таблицы.
+ * Перед чтением берётся граница: начало самой старой открытой транзакции в базе данных (или текущее
+ * время, если открытых нет). Кошелёк, которого нет в прочитанных данных, зафиксирован позже чтения,
+ * значит, его транзакция началась не раньше границы, а идентификатор сгенерирован в ней. UUIDv7 с меткой
+ * времени не раньше {@code граница - bypass-margin} и идентификаторы других версий фильтром
+ * не проверяются и всегда пропускаются к БД. Запас покрывает расхождение часов приложения и БД
+ * и время между генерацией идентификатора и первым запросом его транзакции.
+ * <p>
+ * Граница читается из {@code pg_stat_activity}: роль приложения должна видеть {@code xact_start}
+ * транзакций других экземпляров, то есть они должны подключаться под той же ролью
+ * (или роль должна входить в {@code pg_read_all_stats}).
+ * <p>
+ * Метрики: {@code wallet.id-filter.rejected}, {@code wallet.id-filter.passed}, {@code wallet.id-filter.bypassed},
+ * {@code wallet.id-filter.memory} (байты), {@code wallet.id-filter.hash-functions},
+ * {@code wallet.id-filter.false-positive-rate} (оценка по заполненности), {@code wallet.id-filter.rebuild}.
+ */
+@Slf4j
+@Service
+public class WalletIdFilter {
+
+    private static final String SELECT_WALLET_IDS = "SELECT id FROM wallet";
+
+    private static final String SELECT_COMMITTED_WATERMARK = """
+            SELECT (extract(epoch FROM LEAST(clock_timestamp(), min(xact_start))) * 1000)::bigint
+            FROM pg_stat_activity
+            WHERE datname = current_database()
+              AND xact_start IS NOT NULL
+              AND pid <> pg_backend_pid()
+            """;
+
+    private final WalletIdFilterProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter rejected;
+    private final Counter passed;
+    private final Counter bypassed;
+    private final Timer rebuild;
+
+    private volatile Snapshot current;
+    private volatile UuidBloomFilter building;
+
+    public WalletIdFilter(WalletIdFilterProperties properties,
+                          JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rejected = meterRegistry.counter("wallet.id-filter.rejected");
+        this.passed = meterRegistry.counter("wallet.id-filter.passed");
+        this.bypassed = meterRegistry.counter("wallet.id-filter.bypassed");
+        this.rebuild = meterRegistry.timer("wallet.id-filter.rebuild");
+        gauge(meterRegistry, "wallet.id-filter.memory", UuidBloomFilter::sizeInBytes);
+        gauge(meterRegistry, "wallet.id-filter.hash-functions", UuidBloomFilter::hashFunctions);
+        gauge(meterRegistry, "wallet.id-filter.false-positive-rate", UuidBloomFilter::expectedFalsePositiveRate);
+    }
+
+    /**
+     * Проверяет, может ли кошелёк существовать.
+     *
+     * @param walletID UUID кошелька
+     * @return {@code false}, если кошелька точно нет в базе данных
+     */
+    public boolean mightExist(UUID walletID) {
+        var snapshot = current;
+        if (snapshot == null) {
+            return true;
+        }
+        long createdAtMillis = UuidV7Generator.timestampMillis(walletID);
+        if (createdAtMillis < 0 || createdAtMillis >= snapshot.coveredUntilMillis()) {
+            bypassed.increment();
+            return true;
+        }
+        if (snapshot.filter().mightContain(walletID)) {
+            passed.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Добавляет созданные кошельки в фильтр сейчас и повторно после фиксации транзакции.
+     *
+     * @param walletIDs идентификаторы новых кошельков
+     */
+    public void register(Collection<UUID> walletIDs) {
+        if (!properties.enabled()) {
+            return;
+        }
+        putAll(walletIDs);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putAll(walletIDs);
+                }
+            });
+        }
+    }
+
+    public void register(UUID walletID) {
+        register(List.of(walletID));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * Строит новый фильтр по всем идентификаторам кошельков и заменяет им текущий.
+     * <p>
+     * Кошельки, созданные на этом экземпляре во время чтения, добавляются и в строящийся фильтр;
+     * кошельки, зафиксированные после начала чтения на других экземплярах, не проверяются по границе.
+     */
+    @Scheduled(initialDelayString = "${wallet.id-filter.rebuild-interval:1h}",
+            fixedDelayString = "${wallet.id-filter.rebuild-interval:1h}")
+    public synchronized void rebuild() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        Long walletCount = jdbcTemplate.queryForObject("SELECT count(*) FROM wallet", Long.class);
+        long capacity = Math.max(properties.expectedWallets(), (long) (walletCount * properties.growthFactor()));
+        var filter = UuidBloomFilter.create(capacity, properties.falsePositiveRate(), properties.maxMemory().toBytes());
+
+        building = filter;
+        try {
+            Long watermarkMillis = readOnlyTransaction.execute(status -> {
+                // граница читается до чтения идентификаторов: всё, что зафиксировано позже, началось не раньше неё
+                Long watermark = jdbcTemplate.queryForObject(SELECT_COMMITTED_WATERMARK, Long.class);
+                jdbcTemplate.query(connection -> {
+                    var statement = connection.prepareStatement(SELECT_WALLET_IDS);
+                    statement.setFetchSize(properties.fetchSize());
+                    return statement;
+                }, resultSet -> filter.put(resultSet.getObject(1, UUID.class)));
+                return watermark;
+            });
+            current = new Snapshot(filter, watermarkMillis - properties.bypassMargin().toMillis());
+        } finally {
+            building = null;
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        rebuild.record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        log.info("[INFO] Wallet ID filter rebuilt for {} wallets in {} ms: {} KB, {} hash functions, fpp {}",
+                walletCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), filter.sizeInBytes() / 1024, filter.hashFunctions(),
+                "%.4f".formatted(filter.expectedFalsePositiveRate()));
+    }
+
+    private void putAll(Collection<UUID> walletIDs) {
+        // building читается раньше current: если перестроение завершилось между чтениями,
+        // building уже null, а current — новый фильтр, и идентификаторы в него попадут
+        var next = building;
+        var snapshot = current;
+        for (var walletID : walletIDs) {
+            if (snapshot != null) snapshot.filter().put(walletID);
+            if (next != null) next.put(walletID);
+        }
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, ToDoubleFunction<UuidBloomFilter> value) {
+        Gauge.builder(name, this, walletIdFilter -> {
+            var snapshot = walletIdFilter.current;
+            return snapshot == null ? Double.NaN : value.applyAsDouble(snapshot.filter());
+        }).register(meterRegistry);
+    }
+
+    /**
+     * Построенный фильтр и граница времени, до которой он содержит все существующие кошельки.
+     *
+     * @param filter             фильтр Блума
+     * @param coveredUntilMillis граница зафиксированных кошельков за вычетом {@code bypass-margin},
+     *                           миллисекунды Unix
+     */
+    private record Snapshot(UuidBloomFilter filter, long coveredUntilMillis) {
+    }
+}
@@ -0,0 +1,211 @@
+package ru.mishelby.walletapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import ru.mishelby.walletapi.config.WalletImportProperties;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.CreateWalletRequest;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.WalletEntity;
+import ru.mishelby.walletapi.model.WalletImportReport;
+import ru.mishelby.walletapi.repository.WalletJdbcRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис потокового импорта кошельков с начальными балансами.
+ * <p>
+ * Поддерживаемые форматы тела запроса:
+ * <ul>
+ *     <li>{@code text/csv} — строки {@code initialBalance,expirationDate}, заголовок необязателен</li>
+ *     <li>{@code application/x-ndjson} — по одному объекту {@link CreateWalletRequest} в строке</li>
+ * </ul>
+ * <p>
+ * Тело читается построчно и не буферизуется целиком. Каждая строка проверяется теми же
+ * ограничениями, что и {@link CreateWalletRequest}; корректные строки копятся в пакет
+ * размера {@code wallet.import.chunk-size} и вставляются через {@link WalletJdbcRepository}.
+ * Каждый пакет фиксируется отдельно, поэтому ошибка в одном пакете не отменяет уже загруженные.
+ * <p>
+ * В отчёт попадает не больше {@code wallet.import.max-reported-errors} ошибок строк.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final String CSV_HEADER_PREFIX = "initialBalance";
+
+    private final WalletJdbcRepository walletJdbcRepository;
+    private final WalletImportProperties properties;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Импортирует кошельки из потока.
+     *
+     * @param body        тело запроса
+     * @param contentType формат тела
+     * @return {@link WalletImportReport} с итогами, идентификаторами созданных кошельков по номерам строк
+     *         и ошибками строк
+     * @throws WalletOperationException если формат не поддерживается или поток не удалось прочитать
+     */
+    public WalletImportReport importWallets(InputStream body, MediaType contentType) {
+        boolean csv = TEXT_CSV.isCompatibleWith(contentType);
+        if (!csv && !MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            throw new WalletOperationException("Unsupported import format: %s".formatted(contentType));
+        }
+
+        var report = new ReportBuilder(properties.maxReportedErrors());
+        long startedAt = System.nanoTime();
+
+        List<WalletEntity> chunk = new ArrayList<>(properties.chunkSize());
+        List<Long> chunkLines = new ArrayList<>(properties.chunkSize());
+
+        try (var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (csv && lineNumber == 1 && line.startsWith(CSV_HEADER_PREFIX))) {
+                    continue;
+                }
+                report.totalRows++;
+
+                var walletEntity = parseRow(line, lineNumber, csv, report);
+                if (walletEntity == null) {
+                    continue;
+                }
+
+                chunk.add(walletEntity);
+                chunkLines.add(lineNumber);
+                if (chunk.size() == properties.chunkSize()) {
+                    flush(chunk, chunkLines, report);
+                }
+            }
+            flush(chunk, chunkLines, report);
+        } catch (IOException e) {
+            throw new WalletOperationException("Failed to read import body", e);
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("[INFO] Wallet import finished: {} rows, {} imported, {} rejected in {} ms",
+                report.totalRows, report.importedRows, report.rejectedRows, durationMs);
+        return report.build(durationMs);
+    }
+
+    private WalletEntity parseRow(String line, long lineNumber, boolean csv, ReportBuilder report) {
+        CreateWalletRequest row;
+        try {
+            row = csv ? parseCsv(line) : objectMapper.readValue(line, CreateWalletRequest.class);
+        } catch (Exception e) {
+            report.reject(lineNumber, "Malformed row: " + e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<CreateWalletRequest>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            report.reject(lineNumber, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+
+        try {
+            var walletEntity = new WalletEntity();
+            walletEntity.setBalance(Money.of(row.initialBalance()));
+            walletEntity.setCreatedAt(LocalDateTime.now());
+            walletEntity.setExpirationDate(row.expirationDate());
+            return walletEntity;
+        } catch (WalletOperationException e) {
+            report.reject(lineNumber, "initialBalance: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static CreateWalletRequest parseCsv(String line) {
+        var columns = line.split(",", -1);
+        if (columns.length != 2) {
+            throw new IllegalArgumentException("expected 2 columns but got " + columns.length);
+        }
+        return new CreateWalletRequest(
+                new BigDecimal(columns[0].trim()),
+                YearMonth.parse(columns[1].trim()));
+    }
+
+    private void flush(List<WalletEntity> chunk, List<Long> chunkLines, ReportBuilder report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            walletJdbcRepository.batchInsert(chunk);
+            report.importedRows += chunk.size();
+            for (var i = 0; i < chunk.size(); i++) {
+                report.wallets.add(new WalletImportReport.ImportedWallet(chunkLines.get(i), chunk.get(i).getId()));
+            }
+        } catch (DataAccessException e) {
+            log.error("[ERROR] Import chunk of {} rows failed", chunk.size(), e);
+            chunkLines.forEach(line -> report.reject(line, "Chunk insert failed: " + e.getMostSpecificCause().getMessage()));
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    /**
+     * Накопитель итогов импорта с ограничением на количество сохраняемых ошибок.
+     */
+    private static final class ReportBuilder {
+        private final int maxErrors;
+        private final List<WalletImportReport.ImportedWallet> wallets = new ArrayList<>();
+        private final List<WalletImportReport.RowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long importedRows;
+        private long rejectedRows;
+        private boolean errorsTruncated;
+
+        private ReportBuilder(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String message) {
+            rejectedRows++;
+            if (errors.size() < maxErrors) {
+                errors.add(new WalletImportReport.RowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        private WalletImportReport build(long durationMs) {
+            return WalletImportReport.builder()
+                    .totalRows(totalRows)
+                    .importedRows(importedRows)
+                    .rejectedRows(rejectedRows)
+                    .durationMs(durationMs)
+                    .errorsTruncated(errorsTruncated)
+                    .wallets(wallets)
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.mishelby.walletapi.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.mishelby.walletapi.config.OperationPartitionProperties;
+import ru.mishelby.walletapi.repository.WalletOperationPartitionRepository;
+import ru.mishelby.walletapi.repository.WalletReconciliationRepository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Обслуживание месячных секций журнала операций.
+ * <p>
+ * При старте приложения и по расписанию создаёт секции на текущий и {@code months-ahead} следующих
+ * месяцев, чтобы строки не попадали в секцию по умолчанию. Если задан {@code retention-months},
+ * удаляет секции старше срока хранения: {@code DROP TABLE} секции вместо {@code DELETE} не оставляет
+ * мёртвых строк и не нагружает vacuum.
+ * <p>
+ * Сверка балансов опирается на журнал, поэтому секция удаляется только после того, как её строки
+ * учтены в снимках: завершённый запуск сверки должен начаться позже конца месяца секции.
+ * <p>
+ * Ошибка обслуживания не прерывает старт приложения: она пишется в лог, а секция будет создана
+ * следующим запуском по расписанию. Строки, до тех пор попавшие в секцию по умолчанию, переносятся
+ * в секцию месяца при её создании.
+ * <pre>
+ * wallet:
+ *   operation-partitions:
+ *     cron: "0 15 0 * * *"
+ *     months-ahead: 3
+ *     retention-months: 24
+ * </pre>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WalletOperationPartitionMaintenance {
+
+    private final WalletOperationPartitionRepository partitionRepository;
+    private final WalletReconciliationRepository reconciliationRepository;
+    private final OperationPartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Создаёт недостающие будущие секции и удаляет секции старше срока хранения.
+     */
+    @Scheduled(cron = "${wallet.operation-partitions.cron:0 15 0 * * *}")
+    public void maintain() {
+        var currentMonth = YearMonth.now();
+        for (var i = 0; i <= properties.monthsAhead(); i++) {
+            createPartition(currentMonth.plusMonths(i));
+        }
+
+        if (properties.retentionMonths() > 0) {
+            try {
+                dropExpired(currentMonth.minusMonths(properties.retentionMonths()));
+            } catch (RuntimeException e) {
+                log.error("[ERROR] Operation partitions retention failed, retry on next run", e);
+            }
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        try {
+            int moved = partitionRepository.createMonthlyPartition(month);
+            if (moved > 0) {
+                log.warn("[WARN] Operation partition {} created, {} rows moved from the default partition",
+                        month, moved);
+            }
+        } catch (RuntimeException e) {
+            log.error("[ERROR] Operation partition {} was not created, retry on next run", month, e);
+        }
+    }
+
+    private void dropExpired(YearMonth oldestKept) {
+        LocalDateTime reconciledBefore = reconciliationRepository.findLastFinishedRunStart().orElse(LocalDateTime.MIN);
+
+        for (var month : partitionRepository.findMonthlyPartitions()) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            if (reconciledBefore.isBefore(month.plusMonths(1).atDay(1).atStartOfDay())) {
+                log.warn("[WARN] Operation partition {} is not reconciled yet, retention skipped", month);
+                break;
+            }
+            partitionRepository.dropMonthlyPartition(month);
+            log.info("[INFO] Operation partition {} dropped", month);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.mishelby.walletapi.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Плановый запуск сверки балансов.
+ * <p>
+ * Включается настройкой:
+ * <pre>
+ * wallet:
+ *   reconciliation:
+ *     enabled: true
+ *     cron: "0 30 1 * * *"
+ *     partitions: 16
+ *     parallelism: 2
+ *     chunk-size: 500
+ *     pause: 20ms
+ * </pre>
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "wallet.reconciliation", name = "enabled", havingValue = "true")
+public class WalletReconciliationScheduler {
+
+    private final WalletReconciliationService reconciliationService;
+
+    @Scheduled(cron = "${wallet.reconciliation.cron:0 30 1 * * *}")
+    public void reconcile() throws InterruptedException {
+        reconciliationService.reconcile();
+    }
+}
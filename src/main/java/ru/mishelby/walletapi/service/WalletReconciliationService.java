@@ -0,0 +1,264 @@
+package ru.mishelby.walletapi.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mishelby.walletapi.config.ReconciliationProperties;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.ReconciliationReport;
+import ru.mishelby.walletapi.model.ReconciliationReport.Discrepancy;
+import ru.mishelby.walletapi.model.enums.DiscrepancyType;
+import ru.mishelby.walletapi.model.generator.UuidV7Generator;
+import ru.mishelby.walletapi.repository.WalletReconciliationRepository;
+import ru.mishelby.walletapi.repository.WalletReconciliationRepository.Checkpoint;
+import ru.mishelby.walletapi.repository.WalletReconciliationRepository.ReconciliationRow;
+import ru.mishelby.walletapi.repository.WalletReconciliationRepository.Snapshot;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Сверка балансов кошельков с журналом операций.
+ * <p>
+ * Ожидаемый баланс кошелька — баланс из снимка предыдущей сверки плюс сумма записей
+ * {@code wallet_operation} после снимка. Снимок хранит номер последней учтённой записи и контрольную
+ * сумму, поэтому каждая следующая сверка читает только новые записи журнала.
+ * <p>
+ * Таблица делится на диапазоны идентификаторов, которые сверяются параллельно (не больше
+ * {@code wallet.reconciliation.parallelism} одновременно) порциями по {@code chunk-size} кошельков
+ * с паузой между порциями. Каждая порция читается одной транзакцией {@code REPEATABLE READ}:
+ * баланс и журнал видны в одном снимке данных без блокировок строк кошельков.
+ * После порции в той же транзакции сохраняются новые снимки, расхождения и контрольная точка
+ * диапазона, поэтому прерванная сверка при следующем запуске продолжается с места остановки.
+ * <p>
+ * Номер последней записи снимка хранится отдельно для каждого кошелька: записи одного кошелька
+ * вставляются под блокировкой его строки, и их {@code seq} возрастает в порядке фиксации.
+ * Кошельки с расхождением не получают новый снимок и попадают в отчёт при каждой сверке,
+ * пока расхождение не будет устранено.
+ */
+@Slf4j
+@Service
+public class WalletReconciliationService {
+
+    private final WalletReconciliationRepository reconciliationRepository;
+    private final ReconciliationProperties properties;
+    private final AsyncTaskExecutor taskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate chunkTransactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public WalletReconciliationService(WalletReconciliationRepository reconciliationRepository,
+                                       ReconciliationProperties properties,
+                                       @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                                       PlatformTransactionManager transactionManager) {
+        this.reconciliationRepository = reconciliationRepository;
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Выполняет сверку: продолжает незавершённый запуск или начинает новый.
+     *
+     * @return UUID запуска или пустой результат, если сверка уже выполняется или кошельков нет
+     * @throws InterruptedException если поток прерван во время ожидания диапазонов
+     */
+    public Optional<UUID> reconcile() throws InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            log.info("[INFO] Reconciliation is already running");
+            return Optional.empty();
+        }
+        try {
+            Optional<UUID> runID = reconciliationRepository.findRunningRun().or(this::startRun);
+            if (runID.isPresent()) {
+                reconcileRun(runID.get());
+            }
+            return runID;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Возвращает отчёт о последнем запуске сверки.
+     *
+     * @return {@link ReconciliationReport}
+     * @throws EntityNotFoundException если сверка ещё не запускалась
+     */
+    public ReconciliationReport getLatestReport() {
+        return reconciliationRepository.findLatestReport(properties.maxReportedDiscrepancies())
+                .orElseThrow(() -> new EntityNotFoundException("Reconciliation run not found"));
+    }
+
+    private Optional<UUID> startRun() {
+        return transactionTemplate.execute(status -> reconciliationRepository.findWalletIdBounds().map(bounds -> {
+            UUID runID = UuidV7Generator.next();
+            var ranges = UuidRangePartitioner.split(bounds.first(), bounds.last(), properties.partitions());
+
+            List<Checkpoint> checkpoints = new ArrayList<>(ranges.size());
+            for (var i = 0; i < ranges.size(); i++) {
+                var range = ranges.get(i);
+                checkpoints.add(new Checkpoint(i, range.upperInclusive(), range.lowerExclusive()));
+            }
+            reconciliationRepository.insertRun(runID, LocalDateTime.now());
+            reconciliationRepository.insertCheckpoints(runID, checkpoints);
+
+            log.info("[INFO] Reconciliation run {} started with {} partitions", runID, checkpoints.size());
+            return runID;
+        }));
+    }
+
+    private void reconcileRun(UUID runID) throws InterruptedException {
+        List<Checkpoint> checkpoints = reconciliationRepository.findOpenCheckpoints(runID);
+        log.info("[INFO] Reconciling run {}: {} partitions left", runID, checkpoints.size());
+
+        var workers = new Semaphore(properties.parallelism());
+        List<Future<Boolean>> futures = new ArrayList<>(checkpoints.size());
+        for (var checkpoint : checkpoints) {
+            workers.acquire();
+            futures.add(taskExecutor.submit(() -> {
+                try {
+                    return reconcilePartition(runID, checkpoint);
+                } finally {
+                    workers.release();
+                }
+            }));
+        }
+
+        boolean completed = true;
+        for (var future : futures) {
+            try {
+                completed &= future.get();
+            } catch (ExecutionException e) {
+                log.error("[ERROR] Reconciliation partition failed, run {} will be resumed", runID, e.getCause());
+                completed = false;
+            }
+        }
+
+        if (completed) {
+            reconciliationRepository.finishRun(runID, LocalDateTime.now());
+            log.info("[INFO] Reconciliation run {} finished", runID);
+        }
+    }
+
+    /**
+     * Сверяет диапазон порциями от контрольной точки до верхней границы.
+     *
+     * @return {@code true}, если диапазон сверен полностью
+     */
+    private boolean reconcilePartition(UUID runID, Checkpoint checkpoint) {
+        UUID cursor = checkpoint.lastWalletID();
+        while (true) {
+            UUID after = cursor;
+            ChunkResult result = chunkTransactionTemplate.execute(status -> reconcileChunk(runID, checkpoint, after));
+            if (result.discrepancies() > 0) {
+                log.warn("[WARN] Reconciliation partition {} found {} discrepancies",
+                        checkpoint.partitionNo(), result.discrepancies());
+            }
+            if (result.finished()) {
+                return true;
+            }
+            cursor = result.lastWalletID();
+            if (!pause()) {
+                return false;
+            }
+        }
+    }
+
+    private ChunkResult reconcileChunk(UUID runID, Checkpoint checkpoint, UUID after) {
+        List<ReconciliationRow> rows = reconciliationRepository.findChunk(
+                after, checkpoint.upperBound(), properties.chunkSize());
+        var now = LocalDateTime.now();
+
+        List<Snapshot> snapshots = new ArrayList<>();
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        for (var row : rows) {
+            if (!isNull(row.snapshotBalance())
+                    && checksum(row.walletID(), row.snapshotBalance(), row.snapshotSeq()) != row.snapshotChecksum()) {
+                discrepancies.add(discrepancy(row, DiscrepancyType.SNAPSHOT_CORRUPTED, row.snapshotBalance(), now));
+                reconciliationRepository.deleteSnapshot(row.walletID());
+                continue;
+            }
+
+            Money expected = isNull(row.snapshotBalance()) ? Money.ZERO : row.snapshotBalance();
+            if (!isNull(row.journalDelta())) {
+                expected = expected.plus(row.journalDelta());
+            }
+            if (!expected.equals(row.balance())) {
+                discrepancies.add(discrepancy(row, DiscrepancyType.BALANCE_MISMATCH, expected, now));
+                continue;
+            }
+            if (!isNull(row.journalSeq())) {
+                snapshots.add(new Snapshot(row.walletID(), row.balance(), row.journalSeq(),
+                        checksum(row.walletID(), row.balance(), row.journalSeq())));
+            }
+        }
+
+        if (!snapshots.isEmpty()) {
+            reconciliationRepository.upsertSnapshots(snapshots, now);
+        }
+        if (!discrepancies.isEmpty()) {
+            reconciliationRepository.insertDiscrepancies(runID, discrepancies);
+        }
+
+        boolean finished = rows.size() < properties.chunkSize();
+        UUID lastWalletID = rows.isEmpty() ? after : rows.get(rows.size() - 1).walletID();
+        reconciliationRepository.advanceCheckpoint(runID, checkpoint.partitionNo(), lastWalletID,
+                rows.size(), discrepancies.size(), finished);
+
+        return new ChunkResult(lastWalletID, discrepancies.size(), finished);
+    }
+
+    private static Discrepancy discrepancy(ReconciliationRow row, DiscrepancyType type, Money expected,
+                                           LocalDateTime detectedAt) {
+        log.error("[ERROR] Reconciliation discrepancy {} for wallet {}: actual {}, expected {}",
+                type, row.walletID(), row.balance(), expected);
+        return new Discrepancy(row.walletID(), type, row.balance().toBigDecimal(), expected.toBigDecimal(), detectedAt);
+    }
+
+    /**
+     * Контрольная сумма снимка: CRC32C от идентификатора кошелька, баланса и номера записи журнала.
+     */
+    static long checksum(UUID walletID, Money balance, long lastSeq) {
+        var buffer = ByteBuffer.allocate(4 * Long.BYTES)
+                .putLong(walletID.getMostSignificantBits())
+                .putLong(walletID.getLeastSignificantBits())
+                .putLong(balance.minorUnits())
+                .putLong(lastSeq);
+        var crc = new CRC32C();
+        crc.update(buffer.array());
+        return crc.getValue();
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.pause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("[WARN] Reconciliation interrupted");
+            return false;
+        }
+    }
+
+    private record ChunkResult(UUID lastWalletID, int discrepancies, boolean finished) {
+    }
+}
@@ -4,22 +4,40 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.mishelby.walletapi.config.WalletTransferProperties;
 import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.CreateWalletRequest;
 import ru.mishelby.walletapi.model.DepositOperationRequest;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.PayoutOperationRequest;
 import ru.mishelby.walletapi.model.TransferOperationRequest;
 import ru.mishelby.walletapi.model.WalletDto;
 import ru.mishelby.walletapi.model.WalletEntity;
+import ru.mishelby.walletapi.model.WalletOperationHistory;
 import ru.mishelby.walletapi.model.WalletOperationResponse;
 import ru.mishelby.walletapi.model.enums.OperationType;
+import ru.mishelby.walletapi.model.enums.TransferMode;
+import ru.mishelby.walletapi.repository.WalletJdbcRepository;
+import ru.mishelby.walletapi.repository.WalletJdbcRepository.LockedWallet;
+import ru.mishelby.walletapi.repository.WalletOperationJournal;
+import ru.mishelby.walletapi.repository.WalletOperationJournal.Entry;
+import ru.mishelby.walletapi.repository.WalletTransferProcedure;
+import ru.mishelby.walletapi.repository.WalletTransferProcedure.TransferResult;
+import ru.mishelby.walletapi.utils.OperationCursor;
 import ru.mishelby.walletapi.utils.RepositoryHelper;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.function.Supplier;
 
+import static java.util.Objects.isNull;
 import static ru.mishelby.walletapi.model.enums.OperationType.DEPOSIT;
+import static ru.mishelby.walletapi.model.enums.OperationType.PAYOUT;
 import static ru.mishelby.walletapi.model.enums.OperationType.WITHDRAW;
 
 
@@ -28,20 +46,32 @@ import static ru.mishelby.walletapi.model.enums.OperationType.WITHDRAW;
  * <p>
  * Поддерживает следующие операции:
  * <ul>
+ *     <li>Создание кошелька</li>
  *     <li>Получение баланса кошелька</li>
  *     <li>Пополнение кошелька (deposit)</li>
  *     <li>Снятие средств с кошелька (withdraw)</li>
+ *     <li>Массовая выплата с одного кошелька на многие (payout)</li>
+ *     <li>История операций кошелька</li>
  * </ul>
  * <p>
  * Использует {@link RepositoryHelper} для работы с базой данных и обеспечивает атомарность операций через аннотацию
- * {@link org.springframework.transaction.annotation.Transactional}.
+ * {@link org.springframework.transaction.annotation.Transactional}. Доменные проверки вынесены в {@link WalletRules}
+ * и общие с реактивной реализацией.
+ * <p>
+ * Каждое изменение баланса записывается в {@link WalletOperationJournal} в той же транзакции.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WalletService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final RepositoryHelper repositoryHelper;
+    private final WalletJdbcRepository walletJdbcRepository;
+    private final WalletOperationJournal walletOperationJournal;
+    private final WalletTransferProcedure walletTransferProcedure;
+    private final WalletTransferProperties transferProperties;
 
     @Transactional(readOnly = true)
     public List<WalletDto> findAll(int page, int size) {
@@ -50,11 +80,34 @@ public class WalletService {
         return walletEntity.stream()
                 .map(wallet ->
                         new WalletDto(wallet.getId(),
-                                wallet.getBalance(),
+                                wallet.getBalance().toBigDecimal(),
                                 LocalDateTime.now()))
                 .toList();
     }
 
+    /**
+     * Создаёт новый кошелёк с начальным балансом.
+     * <p>
+     * Идентификатор присваивается генератором UUIDv7 при сохранении.
+     *
+     * @param createWalletRequest объект запроса с начальным балансом и сроком действия
+     * @return {@link WalletDto} созданного кошелька
+     * @throws WalletOperationException если начальный баланс имеет больше двух знаков после запятой
+     */
+    @Transactional
+    public WalletDto createWallet(CreateWalletRequest createWalletRequest) {
+        var walletEntity = new WalletEntity();
+        walletEntity.setBalance(Money.of(createWalletRequest.initialBalance()));
+        walletEntity.setCreatedAt(LocalDateTime.now());
+        walletEntity.setExpirationDate(createWalletRequest.expirationDate());
+
+        var savedWallet = repositoryHelper.saveWallet(walletEntity);
+        walletOperationJournal.append(List.of(Entry.opening(savedWallet)));
+
+        log.debug("[DEBUG] Wallet created: {}", savedWallet.getId());
+        return new WalletDto(savedWallet.getId(), savedWallet.getBalance().toBigDecimal(), LocalDateTime.now());
+    }
+
     /**
      * Получает текущий баланс кошелька.
      *
@@ -64,28 +117,73 @@ public class WalletService {
     @Transactional(readOnly = true)
     public WalletDto getBalance(UUID uuid) {
         var walletEntity = repositoryHelper.findWalletByID(uuid);
-        var walletDto = new WalletDto(walletEntity.getId(), walletEntity.getBalance(), LocalDateTime.now());
+        var walletDto = new WalletDto(walletEntity.getId(), walletEntity.getBalance().toBigDecimal(), LocalDateTime.now());
 
-        log.info("[INFO] Wallet dto: {}", walletDto);
+        log.debug("[DEBUG] Wallet dto: {}", walletDto);
         return walletDto;
     }
 
+    /**
+     * Получает страницу истории операций кошелька от новых к старым.
+     * <p>
+     * Страницы листаются курсором: {@code nextCursor} ответа передаётся в следующий запрос.
+     * В отличие от {@code OFFSET}, стоимость страницы не растёт с её глубиной, а операции,
+     * добавленные между запросами, не сдвигают страницы.
+     *
+     * @param walletID UUID кошелька
+     * @param cursor   курсор из предыдущего ответа или {@code null} для первой страницы
+     * @param size     количество операций на странице, от 1 до {@value #MAX_HISTORY_PAGE_SIZE}
+     * @return {@link WalletOperationHistory} с операциями и курсором следующей страницы
+     * @throws jakarta.persistence.EntityNotFoundException если кошелёк не найден
+     * @throws WalletOperationException                    если размер страницы или курсор некорректны
+     */
+    @Transactional(readOnly = true)
+    public WalletOperationHistory getOperations(UUID walletID, String cursor, int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            log.error("[ERROR] Incorrect history page size!");
+            throw new WalletOperationException("Page size must be between 1 and %d".formatted(MAX_HISTORY_PAGE_SIZE));
+        }
+        OperationCursor position = isNull(cursor) || cursor.isBlank() ? null : OperationCursor.decode(cursor);
+
+        List<WalletOperationHistory.Item> operations = walletOperationJournal.findHistory(walletID, position, size + 1);
+        if (operations.isEmpty() && isNull(position)) {
+            // у каждого кошелька есть запись открытия, но она могла уйти вместе с удалённой секцией журнала
+            repositoryHelper.findWalletByID(walletID);
+        }
+
+        String nextCursor = null;
+        if (operations.size() > size) {
+            operations = operations.subList(0, size);
+            var last = operations.getLast();
+            nextCursor = new OperationCursor(last.createdAt(), last.operationID()).encode();
+        }
+        return WalletOperationHistory.builder()
+                .walletID(walletID)
+                .operations(operations)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     /**
      * Пополняет баланс кошелька.
      *
      * @param walletID                UUID кошелька
      * @param depositOperationRequest объект запроса с суммой для депозита
      * @return {@link WalletOperationResponse} с информацией об операции
-     * @throws WalletOperationException если сумма отрицательная
+     * @throws WalletOperationException если сумма отрицательная или кошелёк заморожен
      */
     @Transactional
     public WalletOperationResponse deposit(UUID walletID, DepositOperationRequest depositOperationRequest) {
-        BigDecimal transferAmount = getDepositAmount(depositOperationRequest);
+        Money transferAmount = getDepositAmount(depositOperationRequest);
         return supply(DEPOSIT, transferAmount, () -> {
             var walletEntity = repositoryHelper.findWalletForUpdateByID(walletID);
 
-            BigDecimal oldBalance = walletEntity.getBalance();
-            walletEntity.setBalance(walletEntity.getBalance().add(transferAmount));
+            checkWalletNotFrozen(walletEntity);
+
+            Money oldBalance = walletEntity.getBalance();
+            walletEntity.setBalance(oldBalance.plus(transferAmount));
+            walletOperationJournal.append(List.of(
+                    new Entry(walletID, null, DEPOSIT, oldBalance, walletEntity.getBalance())));
 
             return getWalletOperationResponse(oldBalance, walletEntity.getBalance(), DEPOSIT);
         });
@@ -93,48 +191,249 @@ public class WalletService {
 
     /**
      * Снимает средства с кошелька и переводит их на другой кошелёк.
+     * <p>
+     * При {@code wallet.transfer.mode=PROCEDURE} перевод выполняется одним вызовом функции
+     * {@code wallet_transfer} в базе данных (см. {@link #withdrawByProcedure}).
+     * Иначе кошельки блокируются в порядке {@link WalletRules#LOCK_ORDER}, чтобы встречные переводы
+     * не приводили к взаимоблокировке.
      *
      * @param walletID                 UUID кошелька-отправителя
      * @param transferOperationRequest объект запроса с суммой перевода и ID кошелька-получателя
      * @return {@link WalletOperationResponse} с информацией об операции
-     * @throws WalletOperationException если сумма отрицательная или недостаточно средств на кошельке
+     * @throws WalletOperationException если сумма отрицательная, недостаточно средств на кошельке,
+     *                                  один из кошельков заморожен или получатель совпадает с отправителем
      */
     @Transactional
     public WalletOperationResponse withdraw(UUID walletID, TransferOperationRequest transferOperationRequest) {
-        BigDecimal transferAmount = getTransferAmount(transferOperationRequest);
+        Money transferAmount = getTransferAmount(transferOperationRequest);
+        checkDistinctWallets(walletID, transferOperationRequest.walletIDTo());
+        if (transferProperties.mode() == TransferMode.PROCEDURE) {
+            return supply(WITHDRAW, transferAmount, () ->
+                    withdrawByProcedure(walletID, transferOperationRequest.walletIDTo(), transferAmount));
+        }
         return supply(WITHDRAW, transferAmount, () -> {
-            var walletEntityFrom = repositoryHelper.findWalletForUpdateByID(walletID);
+            UUID walletIDTo = transferOperationRequest.walletIDTo();
+            WalletEntity walletEntityFrom;
+            WalletEntity walletEntityTo;
+            if (WalletRules.LOCK_ORDER.compare(walletID, walletIDTo) <= 0) {
+                walletEntityFrom = repositoryHelper.findWalletForUpdateByID(walletID);
+                walletEntityTo = repositoryHelper.findWalletForUpdateByID(walletIDTo);
+            } else {
+                walletEntityTo = repositoryHelper.findWalletForUpdateByID(walletIDTo);
+                walletEntityFrom = repositoryHelper.findWalletForUpdateByID(walletID);
+            }
 
+            checkWalletNotFrozen(walletEntityFrom);
             checkWalletFromBalance(walletID, walletEntityFrom, transferAmount);
+            checkWalletNotFrozen(walletEntityTo);
 
-            var walletEntityTo = repositoryHelper.findWalletForUpdateByID(
-                    transferOperationRequest.walletIDTo());
+            Money oldBalance = walletEntityFrom.getBalance();
+            Money oldBalanceTo = walletEntityTo.getBalance();
 
-            BigDecimal oldBalance = walletEntityFrom.getBalance();
+            walletEntityFrom.setBalance(oldBalance.minus(transferAmount));
+            walletEntityTo.setBalance(oldBalanceTo.plus(transferAmount));
 
-            walletEntityFrom.setBalance(walletEntityFrom.getBalance().subtract(transferAmount));
-            walletEntityTo.setBalance(walletEntityTo.getBalance().add(transferAmount));
+            walletOperationJournal.append(List.of(
+                    new Entry(walletID, walletIDTo, WITHDRAW, oldBalance, walletEntityFrom.getBalance()),
+                    new Entry(walletIDTo, walletID, WITHDRAW, oldBalanceTo, walletEntityTo.getBalance())));
 
             return getWalletOperationResponse(oldBalance, walletEntityFrom.getBalance(), WITHDRAW);
         });
     }
 
     /**
-     * Проверяет, что на кошельке достаточно средств для перевода.
+     * Списывает общую сумму с кошелька и зачисляет выплаты на кошельки получателей в одной транзакции.
+     * <p>
+     * Кошелёк-источник и получатели блокируются одним запросом в порядке {@link WalletRules#LOCK_ORDER}:
+     * встречные выплаты, где источник одной операции является получателем другой, захватывают
+     * строки в одной последовательности и не приводят к взаимоблокировке. Списание и зачисления
+     * отправляются одним JDBC-пакетом. Повторяющиеся получатели объединяются. Если хотя бы одна
+     * выплата невозможна, откатывается вся операция.
+     *
+     * @param walletID               UUID кошелька-источника
+     * @param payoutOperationRequest объект запроса со списком выплат
+     * @return {@link WalletOperationResponse} с балансом источника до и после выплаты
+     * @throws jakarta.persistence.EntityNotFoundException если один из кошельков не найден
+     * @throws WalletOperationException                    если недостаточно средств, кошелёк заморожен
+     *                                                     или источник указан среди получателей
+     */
+    @Transactional
+    public WalletOperationResponse payout(UUID walletID, PayoutOperationRequest payoutOperationRequest) {
+        SortedMap<UUID, Money> credits = getPayoutCredits(walletID, payoutOperationRequest);
+        Money totalAmount = credits.values().stream().reduce(Money.ZERO, Money::plus);
+
+        return supply(PAYOUT, totalAmount, () -> {
+            SortedMap<UUID, Money> changes = new TreeMap<>(credits);
+            changes.put(walletID, Money.ZERO.minus(totalAmount));
+
+            List<LockedWallet> recipients = new ArrayList<>(credits.size());
+            LockedWallet source = null;
+            for (var wallet : walletJdbcRepository.lockForUpdate(changes.keySet())) {
+                if (wallet.id().equals(walletID)) {
+                    source = wallet;
+                } else {
+                    recipients.add(wallet);
+                }
+            }
+            if (isNull(source)) {
+                throw RepositoryHelper.walletNotFound(walletID);
+            }
+            if (source.frozen()) {
+                log.error("[ERROR] Wallet is frozen!");
+                throw WalletRules.walletFrozen(walletID);
+            }
+            if (source.availableBalance().isLessThan(totalAmount)) {
+                log.error("[ERROR] Not enough balance!");
+                throw WalletRules.notEnoughBalance(walletID);
+            }
+            checkPayoutRecipients(credits, recipients);
+
+            walletJdbcRepository.batchCredit(changes);
+
+            Money oldBalance = source.balance();
+            Money newBalance = oldBalance.minus(totalAmount);
+
+            List<Entry> entries = new ArrayList<>(recipients.size() + 1);
+            entries.add(new Entry(walletID, null, PAYOUT, oldBalance, newBalance));
+            for (var recipient : recipients) {
+                Money credit = credits.get(recipient.id());
+                entries.add(new Entry(recipient.id(), walletID, PAYOUT,
+                        recipient.balance(), recipient.balance().plus(credit)));
+            }
+            walletOperationJournal.append(entries);
+
+            return getWalletOperationResponse(oldBalance, newBalance, PAYOUT);
+        });
+    }
+
+    /**
+     * Собирает выплаты по получателям в порядке захвата блокировок.
+     *
+     * @param walletID UUID кошелька-источника
+     * @param payout   объект запроса выплаты
+     * @return суммы зачисления по получателям
+     * @throws WalletOperationException если сумма некорректна или источник указан среди получателей
+     */
+    private static SortedMap<UUID, Money> getPayoutCredits(UUID walletID, PayoutOperationRequest payout) {
+        SortedMap<UUID, Money> credits = new TreeMap<>(WalletRules.LOCK_ORDER);
+        for (var item : payout.payouts()) {
+            if (walletID.equals(item.walletIDTo())) {
+                log.error("[ERROR] Payout to the source wallet!");
+                throw new WalletOperationException("Payout to the source wallet is not allowed! Wallet ID %s"
+                        .formatted(walletID));
+            }
+            Money amount = Money.of(item.amount());
+            WalletRules.requireNonNegativeAmount(amount);
+            credits.merge(item.walletIDTo(), amount, Money::plus);
+        }
+        return credits;
+    }
+
+    /**
+     * Проверяет, что все получатели выплаты существуют и не заморожены.
+     *
+     * @param credits    суммы зачисления по получателям
+     * @param recipients заблокированные кошельки получателей
+     * @throws jakarta.persistence.EntityNotFoundException если получатель не найден
+     * @throws WalletOperationException                    если получатель заморожен
+     */
+    private static void checkPayoutRecipients(SortedMap<UUID, Money> credits, List<LockedWallet> recipients) {
+        if (recipients.size() != credits.size()) {
+            var missing = new HashSet<>(credits.keySet());
+            recipients.forEach(recipient -> missing.remove(recipient.id()));
+            throw RepositoryHelper.walletNotFound(missing.iterator().next());
+        }
+        for (var recipient : recipients) {
+            if (recipient.frozen()) {
+                log.error("[ERROR] Wallet is frozen!");
+                throw WalletRules.walletFrozen(recipient.id());
+            }
+        }
+    }
+
+    /**
+     * Выполняет перевод функцией {@code wallet_transfer}: блокировки, проверки, списание и зачисление
+     * происходят за один запрос к базе данных. Статусы ошибок функции преобразуются в те же исключения,
+     * что и при переводе через JPA.
+     *
+     * @param walletID       UUID кошелька-отправителя
+     * @param walletIDTo     UUID кошелька-получателя
+     * @param transferAmount сумма перевода
+     * @return {@link WalletOperationResponse} с информацией об операции
+     * @throws jakarta.persistence.EntityNotFoundException если один из кошельков не найден
+     * @throws WalletOperationException                    если недостаточно средств или кошелёк заморожен
+     */
+    private WalletOperationResponse withdrawByProcedure(UUID walletID, UUID walletIDTo, Money transferAmount) {
+        TransferResult result = walletTransferProcedure.transfer(walletID, walletIDTo, transferAmount);
+
+        switch (result.status()) {
+            case FROM_NOT_FOUND -> throw RepositoryHelper.walletNotFound(walletID);
+            case TO_NOT_FOUND -> throw RepositoryHelper.walletNotFound(walletIDTo);
+            case FROM_FROZEN -> {
+                log.error("[ERROR] Wallet is frozen!");
+                throw WalletRules.walletFrozen(walletID);
+            }
+            case TO_FROZEN -> {
+                log.error("[ERROR] Wallet is frozen!");
+                throw WalletRules.walletFrozen(walletIDTo);
+            }
+            case INSUFFICIENT_BALANCE -> {
+                log.error("[ERROR] Not enough balance!");
+                throw WalletRules.notEnoughBalance(walletID);
+            }
+            case OK -> {
+                // функция сама пишет журнал операций, подписчикам журнала записи передаются отсюда
+                walletOperationJournal.afterAppend(List.of(
+                        new Entry(walletID, walletIDTo, WITHDRAW, result.oldBalanceFrom(), result.newBalanceFrom()),
+                        new Entry(walletIDTo, walletID, WITHDRAW,
+                                result.newBalanceTo().minus(transferAmount), result.newBalanceTo())));
+                return getWalletOperationResponse(result.oldBalanceFrom(), result.newBalanceFrom(), WITHDRAW);
+            }
+        }
+        throw new WalletOperationException("Unexpected transfer status %s".formatted(result.status()));
+    }
+
+    /**
+     * Проверяет, что перевод выполняется между разными кошельками.
+     *
+     * @param walletID   UUID кошелька-отправителя
+     * @param walletIDTo UUID кошелька-получателя
+     * @throws WalletOperationException если отправитель и получатель совпадают
+     */
+    private static void checkDistinctWallets(UUID walletID, UUID walletIDTo) {
+        if (walletID.equals(walletIDTo)) {
+            log.error("[ERROR] Transfer to the source wallet!");
+            throw WalletRules.sameWallet(walletID);
+        }
+    }
+
+    /**
+     * Проверяет, что кошелёк не заморожен из-за истечения срока действия.
+     *
+     * @param walletEntity сущность кошелька
+     * @throws WalletOperationException если кошелёк заморожен
+     */
+    static void checkWalletNotFrozen(WalletEntity walletEntity) {
+        if (walletEntity.isFrozen()) {
+            log.error("[ERROR] Wallet is frozen!");
+            throw WalletRules.walletFrozen(walletEntity.getId());
+        }
+    }
+
+    /**
+     * Проверяет, что на кошельке достаточно средств для перевода с учётом активных холдов.
      *
      * @param walletID         UUID кошелька
      * @param walletEntityFrom сущность кошелька
      * @param transferAmount   сумма перевода
-     * @throws WalletOperationException если баланс меньше суммы перевода
+     * @throws WalletOperationException если доступный баланс меньше суммы перевода
      */
-    private static void checkWalletFromBalance(UUID walletID,
-                                               WalletEntity walletEntityFrom,
-                                               BigDecimal transferAmount) {
-        if (walletEntityFrom.getBalance().compareTo(transferAmount) < 0) {
+    static void checkWalletFromBalance(UUID walletID,
+                                       WalletEntity walletEntityFrom,
+                                       Money transferAmount) {
+        if (walletEntityFrom.getAvailableBalance().isLessThan(transferAmount)) {
             log.error("[ERROR] Not enough balance!");
-            throw new WalletOperationException("Not enough balance! Wallet ID %s"
-                    .formatted(walletID)
-            );
+            throw WalletRules.notEnoughBalance(walletID);
         }
     }
 
@@ -149,13 +448,13 @@ public class WalletService {
      * @throws WalletOperationException если сумма отрицательная
      */
     private static WalletOperationResponse supply(OperationType operation,
-                                                  BigDecimal amount,
+                                                  Money amount,
                                                   Supplier<WalletOperationResponse> supplier) {
-        log.info("[INFO] Request for wallet operation {}", operation);
+        log.debug("[DEBUG] Request for wallet operation {}", operation);
 
         if (amount.signum() < 0) {
             log.error("[ERROR] Amount is negative!");
-            throw new WalletOperationException("Incorrect amount");
+            throw WalletRules.incorrectAmount();
         }
 
         return supplier.get();
@@ -165,20 +464,22 @@ public class WalletService {
      * Получает сумму для перевода из запроса.
      *
      * @param transfer объект запроса перевода
-     * @return сумма перевода
+     * @return сумма перевода в минимальных единицах
+     * @throws WalletOperationException если сумма имеет больше двух знаков после запятой
      */
-    private static BigDecimal getTransferAmount(TransferOperationRequest transfer) {
-        return transfer.amount();
+    private static Money getTransferAmount(TransferOperationRequest transfer) {
+        return Money.of(transfer.amount());
     }
 
     /**
      * Получает сумму депозита из запроса.
      *
      * @param deposit объект запроса депозита
-     * @return сумма депозита
+     * @return сумма депозита в минимальных единицах
+     * @throws WalletOperationException если сумма имеет больше двух знаков после запятой
      */
-    private static BigDecimal getDepositAmount(DepositOperationRequest deposit) {
-        return deposit.amount();
+    private static Money getDepositAmount(DepositOperationRequest deposit) {
+        return Money.of(deposit.amount());
     }
 
     /**
@@ -190,12 +491,12 @@ public class WalletService {
      * @return объект {@link WalletOperationResponse}
      */
     private static WalletOperationResponse getWalletOperationResponse(
-            BigDecimal oldBalance,
-            BigDecimal newBalance,
+            Money oldBalance,
+            Money newBalance,
             OperationType operationType) {
         return WalletOperationResponse.builder()
-                .oldBalanceFrom(oldBalance)
-                .newBalanceFrom(newBalance)
+                .oldBalanceFrom(oldBalance.toBigDecimal())
+                .newBalanceFrom(newBalance.toBigDecimal())
                 .operationTime(LocalDateTime.now())
                 .operationType(operationType)
                 .build();
@@ -0,0 +1,316 @@
+package ru.mishelby.walletapi.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mishelby.walletapi.config.WalletStatsProperties;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.WalletStatsResponse;
+import ru.mishelby.walletapi.model.WalletStatsResponse.OperationVolume;
+import ru.mishelby.walletapi.model.enums.OperationType;
+import ru.mishelby.walletapi.repository.WalletOperationJournal.Entry;
+import ru.mishelby.walletapi.repository.WalletStatsRepository;
+import ru.mishelby.walletapi.repository.WalletStatsRepository.HourlyVolume;
+import ru.mishelby.walletapi.repository.WalletStatsRepository.Totals;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Общая статистика по кошелькам: количество, сумма балансов, количество и объём операций по часам.
+ * <p>
+ * Изменения зафиксированных операций накапливаются в {@link LongAdder} (счётчики, распределённые
+ * по ячейкам, без конкуренции потоков за одну переменную) и каждые {@code wallet.stats.flush-interval}
+ * прибавляются к таблицам {@code wallet_stats} и {@code wallet_stats_hourly}. Счётчики не обнуляются:
+ * сброс запоминает, до какого значения они уже записаны, поэтому изменения не теряются при ошибке записи
+ * и не выпадают из итогов во время сброса. При старте итоги загружаются из {@code wallet_stats},
+ * поэтому чтение итогов — O(1) и не зависит от количества кошельков.
+ * <p>
+ * Источник изменений — записи {@link ru.mishelby.walletapi.repository.WalletOperationJournal}:
+ * открытие увеличивает количество кошельков, каждая запись меняет сумму балансов на свою сумму
+ * (переводы взаимно компенсируются). В операциях по часам учитывается инициирующая сторона —
+ * пополнение, открытие или списание — с объёмом, равным модулю суммы.
+ * <p>
+ * Итоги других экземпляров видны после их сброса, то есть с задержкой до {@code flush-interval}.
+ * <p>
+ * Операции в обход журнала в итоги не попадают: реактивный модуль {@code wallet-reactive} пишет
+ * в {@code wallet_operation} SQL-запросом и этот сервис не вызывает, ручные правки в БД тоже не видны.
+ * Поэтому по расписанию {@code wallet.stats.recount-cron} итоги пересчитываются по таблице {@code wallet}
+ * ({@code count(*)} и {@code sum(balance)}) одним экземпляром, см. {@link #recount()}. Пока идёт пересчёт,
+ * сбросы всех экземпляров ждут блокировки строки итогов, а вместе с ними и другие задачи планировщика.
+ * Несброшенные изменения других экземпляров, зафиксированные до пересчёта, учитываются дважды:
+ * расхождение не больше их операций за {@code flush-interval} и не накапливается между пересчётами.
+ * Почасовые операции не пересчитываются.
+ */
+@Slf4j
+@Service
+public class WalletStatsService {
+
+    private final WalletStatsRepository statsRepository;
+    private final WalletStatsProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder walletCount = new LongAdder();
+    private final LongAdder totalBalance = new LongAdder();
+    private final Map<HourKey, HourCounter> hourly = new ConcurrentHashMap<>();
+    private volatile Flushed flushed;
+
+    public WalletStatsService(WalletStatsRepository statsRepository,
+                              WalletStatsProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Учитывает записи журнала после фиксации текущей транзакции; без транзакции — сразу.
+     *
+     * @param entries записи журнала операций
+     */
+    public void recordAfterCommit(List<Entry> entries) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(entries);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(entries);
+            }
+        });
+    }
+
+    /**
+     * Возвращает итоги и операции за часы, пересекающиеся с {@code [from, to)}.
+     *
+     * @param from начало интервала; по умолчанию {@code to - wallet.stats.default-range}
+     * @param to   конец интервала; по умолчанию текущий момент
+     * @return {@link WalletStatsResponse}
+     * @throws WalletOperationException если начало интервала не раньше конца
+     */
+    public WalletStatsResponse getStats(LocalDateTime from, LocalDateTime to) {
+        var now = LocalDateTime.now();
+        var end = to != null ? to : now;
+        var start = from != null ? from : end.minus(properties.defaultRange());
+        if (!start.isBefore(end)) {
+            log.error("[ERROR] Stats interval is empty!");
+            throw new WalletOperationException("Stats interval start %s must be before end %s".formatted(start, end));
+        }
+        var firstHour = start.truncatedTo(ChronoUnit.HOURS);
+        var endHour = end.truncatedTo(ChronoUnit.HOURS).equals(end) ? end : end.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+
+        Map<OperationType, HourlyVolume> volumes = statsRepository.findHourly(firstHour, endHour);
+        List<OperationVolume> operations = new ArrayList<>();
+        for (var operationType : OperationType.values()) {
+            long count = 0;
+            Money volume = Money.ZERO;
+            var stored = volumes.get(operationType);
+            if (stored != null) {
+                count = stored.count();
+                volume = stored.volume();
+            }
+            for (var hour = firstHour; hour.isBefore(endHour) && !hour.isAfter(now); hour = hour.plusHours(1)) {
+                var pending = hourly.get(new HourKey(hour, operationType));
+                if (pending != null) {
+                    count += pending.pendingCount();
+                    volume = volume.plus(Money.ofMinor(pending.pendingVolume()));
+                }
+            }
+            if (count > 0) {
+                operations.add(new OperationVolume(operationType, count, volume.toBigDecimal()));
+            }
+        }
+
+        var state = flushed();
+        return WalletStatsResponse.builder()
+                .walletCount(state.totals().walletCount() + walletCount.sum() - state.walletCountMark())
+                .totalBalance(state.totals().totalBalance()
+                        .plus(Money.ofMinor(totalBalance.sum() - state.totalBalanceMark()))
+                        .toBigDecimal())
+                .from(firstHour)
+                .to(endHour)
+                .operations(operations)
+                .requestedAt(now)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        var state = flushed();
+        log.info("[INFO] Wallet stats loaded: {} wallets, total balance {}",
+                state.totals().walletCount(), state.totals().totalBalance());
+    }
+
+    /**
+     * Прибавляет изменения, накопленные с прошлого сброса, к агрегатам в одной транзакции.
+     * Если запись не удалась, изменения будут записаны следующим сбросом.
+     */
+    @Scheduled(initialDelayString = "${wallet.stats.flush-interval:5s}",
+            fixedDelayString = "${wallet.stats.flush-interval:5s}")
+    @PreDestroy
+    public synchronized void flush() {
+        var state = flushed();
+        long walletCountMark = walletCount.sum();
+        long totalBalanceMark = totalBalance.sum();
+        long walletCountDelta = walletCountMark - state.walletCountMark();
+        long totalBalanceDelta = totalBalanceMark - state.totalBalanceMark();
+
+        List<HourlyVolume> hourlyDeltas = new ArrayList<>();
+        List<Runnable> hourlyMarks = new ArrayList<>();
+        hourly.forEach((key, counter) -> {
+            long count = counter.count.sum();
+            long volume = counter.volume.sum();
+            if (count > counter.flushedCount) {
+                hourlyDeltas.add(new HourlyVolume(key.bucketStart(), key.operationType(),
+                        count - counter.flushedCount, Money.ofMinor(volume - counter.flushedVolume)));
+                hourlyMarks.add(() -> counter.markFlushed(count, volume));
+            }
+        });
+        if (walletCountDelta == 0 && totalBalanceDelta == 0 && hourlyDeltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            var totals = transactionTemplate.execute(status -> {
+                statsRepository.addHourly(hourlyDeltas);
+                return statsRepository.addTotals(walletCountDelta, Money.ofMinor(totalBalanceDelta), LocalDateTime.now());
+            });
+            hourlyMarks.forEach(Runnable::run);
+            flushed = new Flushed(totals, walletCountMark, totalBalanceMark);
+        } catch (RuntimeException e) {
+            log.error("[ERROR] Wallet stats flush failed, changes kept for the next attempt", e);
+            return;
+        }
+        removeFlushedPastHours();
+    }
+
+    /**
+     * Заменяет итоги пересчитанными по таблице {@code wallet}.
+     * <p>
+     * Пересчёт выполняет один экземпляр: он берёт {@code pg_try_advisory_xact_lock}, остальные его пропускают.
+     * Если итоги уже пересчитаны за последние {@code wallet.stats.recount-min-interval}, таблица не читается.
+     * Строка итогов блокируется до чтения таблицы, поэтому сбросы других экземпляров не затираются пересчётом,
+     * а ждут его окончания. Изменения этого экземпляра, учтённые до чтения таблицы, уже зафиксированы
+     * и входят в пересчёт: отметки сброса переносятся на них, и записаны отдельно они не будут.
+     */
+    @Scheduled(cron = "${wallet.stats.recount-cron:0 30 2 * * *}")
+    public synchronized void recount() {
+        var state = flushed();
+        var now = LocalDateTime.now();
+        Flushed recounted;
+        try {
+            recounted = transactionTemplate.execute(status -> {
+                if (!statsRepository.tryLockRecount()) {
+                    log.info("[INFO] Wallet stats recount skipped, another instance is recounting");
+                    return null;
+                }
+                if (!statsRepository.isRecountDue(now.minus(properties.recountMinInterval()))) {
+                    log.info("[INFO] Wallet stats recount skipped, totals were recounted less than {} ago",
+                            properties.recountMinInterval());
+                    return null;
+                }
+                long walletCountMark = walletCount.sum();
+                long totalBalanceMark = totalBalance.sum();
+                return new Flushed(statsRepository.recountTotals(now), walletCountMark, totalBalanceMark);
+            });
+        } catch (RuntimeException e) {
+            log.error("[ERROR] Wallet stats recount failed", e);
+            return;
+        }
+        if (recounted == null) {
+            return;
+        }
+        flushed = recounted;
+        log.info("[INFO] Wallet stats recounted: {} wallets (was {}), total balance {} (was {})",
+                recounted.totals().walletCount(), state.totals().walletCount(),
+                recounted.totals().totalBalance(), state.totals().totalBalance());
+    }
+
+    private void record(List<Entry> entries) {
+        var hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        for (var entry : entries) {
+            long amount = entry.amount().minorUnits();
+            totalBalance.add(amount);
+            if (entry.operationType() == OperationType.OPENING) {
+                walletCount.increment();
+            }
+            if (entry.counterpartyId() == null || amount < 0) {
+                counter(hour, entry.operationType()).add(1, Math.abs(amount));
+            }
+        }
+    }
+
+    /**
+     * Удаляет записанные счётчики прошлых часов: новых операций в них уже не будет.
+     */
+    private void removeFlushedPastHours() {
+        var previousHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        hourly.entrySet().removeIf(entry ->
+                entry.getKey().bucketStart().isBefore(previousHour) && entry.getValue().pendingCount() == 0);
+    }
+
+    private HourCounter counter(LocalDateTime hour, OperationType operationType) {
+        return hourly.computeIfAbsent(new HourKey(hour, operationType), key -> new HourCounter());
+    }
+
+    private Flushed flushed() {
+        var state = flushed;
+        if (state == null) {
+            synchronized (this) {
+                if (flushed == null) {
+                    flushed = new Flushed(statsRepository.findTotals(), 0, 0);
+                }
+                state = flushed;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Итоги из БД после последнего сброса и значения счётчиков, до которых изменения уже записаны.
+     */
+    private record Flushed(Totals totals, long walletCountMark, long totalBalanceMark) {
+    }
+
+    private record HourKey(LocalDateTime bucketStart, OperationType operationType) {
+    }
+
+    private static final class HourCounter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder volume = new LongAdder();
+        private volatile long flushedCount;
+        private volatile long flushedVolume;
+
+        void add(long operations, long volumeMinorUnits) {
+            count.add(operations);
+            volume.add(volumeMinorUnits);
+        }
+
+        void markFlushed(long count, long volume) {
+            flushedCount = count;
+            flushedVolume = volume;
+        }
+
+        long pendingCount() {
+            return count.sum() - flushedCount;
+        }
+
+        long pendingVolume() {
+            return volume.sum() - flushedVolume;
+        }
+    }
+}
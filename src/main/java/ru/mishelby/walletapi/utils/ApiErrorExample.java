@@ -30,6 +30,56 @@ public final class ApiErrorExample {
             ]
             """;
 
+    public static final String WALLET_CREATE_201 = """
+            {
+              "walletID": "019a9b2e-7c41-7d3a-9f1e-2b4c6d8e0a12",
+              "balance": 500.00,
+              "requestedAt": "2025-11-17 10:15:30"
+            }
+            """;
+
+    public static final String WALLET_CREATE_400 = """
+            {
+              "title": "Validation exeption",
+              "status": 400,
+              "details": "must be in the present or future",
+              "instance": "/api/v1/wallets",
+              "localDateTime": "2025-11-17T10:20:00",
+              "fieldError": [
+                {
+                  "field": "expirationDate",
+                  "message": "must be in the present or future"
+                }
+              ]
+            }
+            """;
+
+    public static final String WALLET_IMPORT_200 = """
+            {
+              "totalRows": 3,
+              "importedRows": 2,
+              "rejectedRows": 1,
+              "durationMs": 42,
+              "errorsTruncated": false,
+              "wallets": [
+                {
+                  "line": 1,
+                  "walletID": "019a8f2e-4c1b-7d3a-9b2e-5f6a7c8d9e01"
+                },
+                {
+                  "line": 2,
+                  "walletID": "019a8f2e-4c1b-7d3a-9b2e-5f6a7c8d9e02"
+                }
+              ],
+              "errors": [
+                {
+                  "line": 3,
+                  "message": "expirationDate: must be in the present or future"
+                }
+              ]
+            }
+            """;
+
     public static final String WALLET_BALANCE_400 = """
             {
               "title": "Bad Request",
@@ -50,6 +100,139 @@ public final class ApiErrorExample {
             }
             """;
 
+    public static final String WALLET_PAYOUT_200 = """
+            {
+              "operationType": "PAYOUT",
+              "oldBalanceFrom": 100000.00,
+              "newBalanceFrom": 62500.00,
+              "operationTime": "2025-11-17T10:25:00"
+            }
+            """;
+
+    public static final String WALLET_HOLD_201 = """
+            {
+              "holdID": "019a9a1c-5f0e-7c41-9a57-3b0f2d6e8c11",
+              "walletID": "123e4567-e89b-12d3-a456-426614174000",
+              "amount": 2500.00,
+              "status": "ACTIVE",
+              "expiresAt": "2025-11-17T10:40:00",
+              "availableBalance": 97500.00
+            }
+            """;
+
+    public static final String WALLET_HOLD_CAPTURE_200 = """
+            {
+              "holdID": "019a9a1c-5f0e-7c41-9a57-3b0f2d6e8c11",
+              "walletID": "123e4567-e89b-12d3-a456-426614174000",
+              "amount": 2500.00,
+              "status": "CAPTURED",
+              "expiresAt": "2025-11-17T10:40:00",
+              "availableBalance": 97500.00
+            }
+            """;
+
+    public static final String WALLET_HOLD_RELEASE_200 = """
+            {
+              "holdID": "019a9a1c-5f0e-7c41-9a57-3b0f2d6e8c11",
+              "walletID": "123e4567-e89b-12d3-a456-426614174000",
+              "amount": 2500.00,
+              "status": "RELEASED",
+              "expiresAt": "2025-11-17T10:40:00",
+              "availableBalance": 100000.00
+            }
+            """;
+
+    public static final String WALLET_HOLD_400 = """
+            {
+              "title": "Wallet Operation Error",
+              "status": 400,
+              "details": "Hold is CAPTURED! Hold ID 019a9a1c-5f0e-7c41-9a57-3b0f2d6e8c11",
+              "instance": "/api/v1/wallets/holds/019a9a1c-5f0e-7c41-9a57-3b0f2d6e8c11/release",
+              "localDateTime": "2025-11-17T10:30:00"
+            }
+            """;
+
+    public static final String RECONCILIATION_REPORT_200 = """
+            {
+              "runID": "019a9b02-11aa-7d30-b1c2-5e6f7a8b9c0d",
+              "status": "FINISHED",
+              "startedAt": "2025-11-17T01:30:00",
+              "finishedAt": "2025-11-17T01:42:10",
+              "partitions": 16,
+              "finishedPartitions": 16,
+              "checkedWallets": 1000000,
+              "discrepancyCount": 1,
+              "discrepancies": [
+                {
+                  "walletID": "123e4567-e89b-12d3-a456-426614174000",
+                  "type": "BALANCE_MISMATCH",
+                  "actualBalance": 1500.00,
+                  "expectedBalance": 1000.00,
+                  "detectedAt": "2025-11-17T01:35:12"
+                }
+              ]
+            }
+            """;
+
+    public static final String WALLET_OPERATIONS_200 = """
+            {
+              "walletID": "123e4567-e89b-12d3-a456-426614174000",
+              "operations": [
+                {
+                  "operationID": 1042,
+                  "operationType": "WITHDRAW",
+                  "counterpartyID": "019a9a1c-5f0e-7c41-9a57-3b0f2d6e8c11",
+                  "amount": -250.00,
+                  "oldBalance": 1250.00,
+                  "newBalance": 1000.00,
+                  "createdAt": "2025-11-17 10:30:00.125"
+                },
+                {
+                  "operationID": 977,
+                  "operationType": "DEPOSIT",
+                  "counterpartyID": null,
+                  "amount": 250.00,
+                  "oldBalance": 1000.00,
+                  "newBalance": 1250.00,
+                  "createdAt": "2025-11-17 09:12:41.503"
+                }
+              ],
+              "nextCursor": "MjAyNS0xMS0xN1QwOToxMjo0MS41MDN8OTc3"
+            }
+            """;
+
+    public static final String WALLET_STATS_200 = """
+            {
+              "walletCount": 1000000,
+              "totalBalance": 1052340125.50,
+              "from": "2025-11-16T10:00:00",
+              "to": "2025-11-17T11:00:00",
+              "operations": [
+                {
+                  "operationType": "DEPOSIT",
+                  "count": 15230,
+                  "volume": 1250000.00
+                },
+                {
+                  "operationType": "WITHDRAW",
+                  "count": 9812,
+                  "volume": 734510.25
+                }
+              ],
+              "requestedAt": "2025-11-17T10:30:00"
+            }
+            """;
+
+    public static final String WALLET_STATS_400 = """
+            {
+              "title": "Wallet Operation Error",
+              "status": 400,
+              "details": "Stats interval start 2025-11-17T10:00 must be before end 2025-11-16T10:00",
+              "instance": "/api/v1/wallets/stats",
+              "localDateTime": "2025-11-17T10:30:00"
+            }
+            """;
+
     public static final String WALLET_OPERATION_400 = """
             {
               "title": "Validation Error",
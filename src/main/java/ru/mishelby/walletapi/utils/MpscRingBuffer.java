@@ -0,0 +1,116 @@
+package ru.mishelby.walletapi.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченная неблокирующая очередь «много производителей — один потребитель» на кольцевом буфере.
+ * <p>
+ * Каждая ячейка хранит номер последовательности: производитель занимает позицию CAS-ом хвоста
+ * и публикует элемент, записывая в ячейку {@code позиция + 1}; потребитель освобождает ячейку,
+ * записывая {@code позиция + capacity}. Производители не ждут друг друга и потребителя:
+ * при заполненном буфере {@link #offer(Object)} сразу возвращает {@code false}.
+ * <p>
+ * {@link #poll()} и {@link #drain(Consumer, int)} должен вызывать только один поток.
+ *
+ * @param <E> тип элементов
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity ёмкость буфера, степень двойки
+     * @throws IllegalArgumentException если ёмкость не степень двойки
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (var i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Добавляет элемент, если в буфере есть место.
+     *
+     * @param element элемент
+     * @return {@code false}, если буфер заполнен
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // иначе позицию занял другой производитель — перечитываем хвост
+        }
+    }
+
+    /**
+     * Извлекает следующий элемент.
+     *
+     * @return элемент или {@code null}, если буфер пуст
+     */
+    public E poll() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, position + capacity);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    /**
+     * Извлекает до {@code limit} элементов.
+     *
+     * @param consumer получатель элементов
+     * @param limit    максимальное количество элементов
+     * @return количество извлечённых элементов
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        var drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return приблизительное количество элементов в буфере
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.mishelby.walletapi.utils;
+
+import ru.mishelby.walletapi.exception.WalletOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор страницы истории операций: позиция последней выданной записи в порядке
+ * {@code (created_at, seq)} по убыванию. Клиенту передаётся непрозрачной строкой.
+ *
+ * @param createdAt время последней выданной записи
+ * @param seq       номер последней выданной записи
+ */
+public record OperationCursor(LocalDateTime createdAt, long seq) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * @return курсор в виде base64url-строки
+     */
+    public String encode() {
+        var raw = createdAt.toString() + SEPARATOR + seq;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Разбирает курсор, полученный от клиента.
+     *
+     * @param cursor строка из {@link #encode()}
+     * @return курсор
+     * @throws WalletOperationException если строка не является курсором
+     */
+    public static OperationCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new OperationCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new WalletOperationException("Invalid operations cursor %s".formatted(cursor), e);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.mishelby.walletapi.model.WalletEntity;
 import ru.mishelby.walletapi.repository.WalletRepository;
+import ru.mishelby.walletapi.service.WalletIdFilter;
 
 import java.util.Collections;
 import java.util.List;
@@ -22,12 +23,15 @@ import java.util.function.Supplier;
  * Содержит общие методы получения сущностей кошельков с единообразной
  * обработкой ошибок и логированием. Позволяет избежать дублирования
  * логики доступа к репозиторию в сервисах.
+ * <p>
+ * Идентификаторы, которых точно нет в базе данных по {@link WalletIdFilter}, отклоняются без запроса к ней.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RepositoryHelper {
     private final WalletRepository walletRepository;
+    private final WalletIdFilter walletIdFilter;
 
     /**
      * Получает сущность {@link WalletEntity} по её уникальному идентификатору.
@@ -39,12 +43,8 @@ public class RepositoryHelper {
      * @throws EntityNotFoundException если кошелёк не найден
      */
     public WalletEntity findWalletByID(UUID walletID) {
-        return walletRepository.findById(walletID).orElseThrow(
-                () -> {
-                    log.error(defaultMessage(() -> "[ERROR] Wallet Not Found For UUID {}"), walletID);
-                    return new EntityNotFoundException("Wallet Not Found For UUID %s".formatted(walletID));
-                }
-        );
+        requireKnownWallet(walletID);
+        return walletRepository.findById(walletID).orElseThrow(() -> walletNotFound(walletID));
     }
 
     /**
@@ -60,12 +60,20 @@ public class RepositoryHelper {
      * @throws EntityNotFoundException если кошелёк не найден
      */
     public WalletEntity findWalletForUpdateByID(UUID walletID) {
-        return walletRepository.findByIdForUpdate(walletID).orElseThrow(
-                () -> {
-                    log.error(defaultMessage(() -> "[ERROR] Wallet Not Found For UUID {}"), walletID);
-                    return new EntityNotFoundException("Wallet Not Found For UUID %s".formatted(walletID));
-                }
-        );
+        requireKnownWallet(walletID);
+        return walletRepository.findByIdForUpdate(walletID).orElseThrow(() -> walletNotFound(walletID));
+    }
+
+    /**
+     * Сохраняет новый кошелёк.
+     *
+     * @param walletEntity сущность кошелька без идентификатора
+     * @return сохранённая сущность с присвоенным UUID
+     */
+    public WalletEntity saveWallet(WalletEntity walletEntity) {
+        var savedWallet = walletRepository.save(walletEntity);
+        walletIdFilter.register(savedWallet.getId());
+        return savedWallet;
     }
 
     public List<WalletEntity> findAllWallets(int page, int size) {
@@ -77,6 +85,30 @@ public class RepositoryHelper {
         return allWallets.getContent();
     }
 
+    /**
+     * Логирует отсутствие кошелька и создаёт исключение {@link EntityNotFoundException}.
+     *
+     * @param walletID UUID кошелька
+     * @return исключение для выбрасывания вызывающим кодом
+     */
+    public static EntityNotFoundException walletNotFound(UUID walletID) {
+        log.error(defaultMessage(() -> "[ERROR] Wallet Not Found For UUID {}"), walletID);
+        return new EntityNotFoundException("Wallet Not Found For UUID %s".formatted(walletID));
+    }
+
+    /**
+     * Отклоняет идентификатор, которого точно нет в базе данных. Такие запросы массовые
+     * (перебор случайных UUID), поэтому ошибка не логируется.
+     *
+     * @param walletID UUID кошелька
+     * @throws EntityNotFoundException если кошелька нет по фильтру
+     */
+    private void requireKnownWallet(UUID walletID) {
+        if (!walletIdFilter.mightExist(walletID)) {
+            throw new EntityNotFoundException("Wallet Not Found For UUID " + walletID);
+        }
+    }
+
     private static String defaultMessage(Supplier<String> messageSupplier) {
         return messageSupplier.get();
     }
@@ -5,4 +5,5 @@ public class TestDataConstantValue {
     public static final int ORIGIN = 100;
     public static final int BOUND = 2000;
     public static final int BOUND_NEXT_INT = 24;
+    public static final int DEFAULT_BATCH_SIZE = 1000;
 }
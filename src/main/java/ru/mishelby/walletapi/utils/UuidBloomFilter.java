@@ -0,0 +1,134 @@
+package ru.mishelby.walletapi.utils;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасный фильтр Блума для UUID.
+ * <p>
+ * {@link #mightContain(UUID)} никогда не возвращает {@code false} для добавленного идентификатора
+ * и возвращает {@code true} для отсутствующего с вероятностью, близкой к {@link #expectedFalsePositiveRate()}.
+ * Биты хранятся в {@link AtomicLongArray} и устанавливаются CAS-ом, поэтому добавление и проверка
+ * не требуют блокировок. Позиции битов вычисляются двойным хешированием из 128 бит UUID,
+ * перемешанных финализатором MurmurHash3: старшие биты UUIDv7 — это время создания, и без
+ * перемешивания соседние кошельки попадали бы в соседние биты.
+ */
+public final class UuidBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final LongAdder setBits = new LongAdder();
+
+    private UuidBloomFilter(long bitSize, int hashFunctions) {
+        this.bitSize = bitSize;
+        this.hashFunctions = hashFunctions;
+        this.words = new AtomicLongArray(Math.toIntExact((bitSize + Long.SIZE - 1) / Long.SIZE));
+    }
+
+    /**
+     * Создаёт фильтр оптимального размера для заданного количества элементов и доли ложных срабатываний.
+     *
+     * @param expectedInsertions ожидаемое количество элементов
+     * @param falsePositiveRate  допустимая доля ложных срабатываний, {@code (0, 1)}
+     * @param maxBytes           ограничение размера битового массива; при нехватке доля ложных срабатываний растёт
+     * @return пустой фильтр
+     * @throws IllegalArgumentException если параметры вне допустимых границ
+     */
+    public static UuidBloomFilter create(long expectedInsertions, double falsePositiveRate, long maxBytes) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1 || maxBytes < Long.BYTES) {
+            throw new IllegalArgumentException("Invalid Bloom filter parameters: n=%d, p=%s, maxBytes=%d"
+                    .formatted(expectedInsertions, falsePositiveRate, maxBytes));
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        long bitSize = Math.max(Long.SIZE, Math.min(optimalBits, maxBytes * Byte.SIZE));
+        int hashFunctions = (int) Math.max(1, Math.round((double) bitSize / expectedInsertions * LN2));
+        return new UuidBloomFilter(bitSize, hashFunctions);
+    }
+
+    /**
+     * Добавляет идентификатор.
+     *
+     * @param uuid идентификатор
+     */
+    public void put(UUID uuid) {
+        long hash1 = hash1(uuid);
+        long hash2 = hash2(hash1);
+        for (var i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0) {
+                long witness = words.compareAndExchange(index, word, word | mask);
+                if (witness == word) {
+                    setBits.increment();
+                    break;
+                }
+                word = witness;
+            }
+        }
+    }
+
+    /**
+     * @param uuid идентификатор
+     * @return {@code false}, если идентификатор точно не добавлялся
+     */
+    public boolean mightContain(UUID uuid) {
+        long hash1 = hash1(uuid);
+        long hash2 = hash2(hash1);
+        for (var i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Оценивает текущую долю ложных срабатываний по заполненности битового массива.
+     *
+     * @return вероятность ложного срабатывания
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) setBits.sum() / bitSize, hashFunctions);
+    }
+
+    /**
+     * @return размер битового массива в байтах
+     */
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private static long hash1(UUID uuid) {
+        return fmix64(uuid.getMostSignificantBits() ^ fmix64(uuid.getLeastSignificantBits()));
+    }
+
+    private static long hash2(long hash1) {
+        // нечётный шаг обходит все позиции при размере-степени двойки
+        return fmix64(hash1 + GOLDEN_GAMMA) | 1L;
+    }
+
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53a87ebL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.mishelby.walletapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,22 +12,31 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.CreateWalletRequest;
 import ru.mishelby.walletapi.model.DepositOperationRequest;
+import ru.mishelby.walletapi.model.PayoutOperationRequest;
 import ru.mishelby.walletapi.model.TransferOperationRequest;
 import ru.mishelby.walletapi.model.WalletDto;
+import ru.mishelby.walletapi.model.WalletImportReport;
+import ru.mishelby.walletapi.model.WalletOperationHistory;
 import ru.mishelby.walletapi.model.WalletOperationResponse;
 import ru.mishelby.walletapi.repository.WalletRepository;
+import ru.mishelby.walletapi.service.WalletImportService;
 import ru.mishelby.walletapi.service.WalletService;
 
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static ru.mishelby.walletapi.model.enums.OperationType.DEPOSIT;
+import static ru.mishelby.walletapi.model.enums.OperationType.PAYOUT;
 import static ru.mishelby.walletapi.model.enums.OperationType.WITHDRAW;
 
 @WebMvcTest(WalletController.class)
@@ -41,6 +51,9 @@ class WalletControllerTest {
     @MockitoBean
     private WalletService walletService;
 
+    @MockitoBean
+    private WalletImportService walletImportService;
+
     @MockitoBean
     private WalletRepository walletRepository;
 
@@ -54,13 +67,73 @@ class WalletControllerTest {
 
     @BeforeEach
     void setUp() {
-        walletDto = new WalletDto(INITIAL_BALANCE, TIME);
+        walletDto = new WalletDto(WALLET_ID, INITIAL_BALANCE, TIME);
     }
 
     private String toJson(Object obj) throws Exception {
         return objectMapper.writeValueAsString(obj);
     }
 
+    @Nested
+    @DisplayName("POST /wallets")
+    class CreateWallet {
+
+        @Test
+        @DisplayName("Должен вернуть статус 201 и созданный кошелёк")
+        void createWallet_shouldReturnCreatedWallet() throws Exception {
+            var request = new CreateWalletRequest(INITIAL_BALANCE, YearMonth.now().plusMonths(1));
+
+            Mockito.when(walletService.createWallet(request)).thenReturn(walletDto);
+
+            mockMvc.perform(post("/api/v1/wallets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(toJson(request))
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Location", "http://localhost/api/v1/wallets/" + WALLET_ID))
+                    .andExpect(jsonPath("$.walletID").value(WALLET_ID.toString()))
+                    .andExpect(jsonPath("$.balance").value(INITIAL_BALANCE));
+        }
+
+        @Test
+        @DisplayName("Должен вернуть статус 400, если срок действия в прошлом")
+        void createWallet_shouldRejectExpiredDate() throws Exception {
+            var request = new CreateWalletRequest(INITIAL_BALANCE, YearMonth.now().minusMonths(1));
+
+            mockMvc.perform(post("/api/v1/wallets")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(toJson(request))
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.fieldError[0].field").value("expirationDate"));
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /wallets/import")
+    class ImportWallets {
+
+        @Test
+        @DisplayName("Должен вернуть статус 200 и отчёт об импорте")
+        void importWallets_shouldReturnReport() throws Exception {
+            var report = new WalletImportReport(2, 1, 1, 5, false,
+                    List.of(new WalletImportReport.ImportedWallet(2, WALLET_ID)),
+                    List.of(new WalletImportReport.RowError(3, "expirationDate: must be in the present or future")));
+
+            Mockito.when(walletImportService.importWallets(Mockito.any(), Mockito.any())).thenReturn(report);
+
+            mockMvc.perform(post("/api/v1/wallets/import")
+                            .contentType("text/csv")
+                            .content("initialBalance,expirationDate\n100.00,2099-01\n5.00,2000-01\n")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.importedRows").value(1))
+                    .andExpect(jsonPath("$.wallets[0].line").value(2))
+                    .andExpect(jsonPath("$.wallets[0].walletID").value(WALLET_ID.toString()))
+                    .andExpect(jsonPath("$.errors[0].line").value(3));
+        }
+    }
+
     @Nested
     @DisplayName("GET /wallets/{uuid}")
     class GetWalletBalance {
@@ -78,6 +151,61 @@ class WalletControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /wallets/{uuid}/operations")
+    class GetWalletOperations {
+
+        @Test
+        @DisplayName("Должен вернуть статус 200, страницу операций и курсор следующей страницы")
+        void getWalletOperations_shouldReturnPage() throws Exception {
+            var item = WalletOperationHistory.Item.builder()
+                    .operationID(42L)
+                    .operationType(DEPOSIT)
+                    .amount(UPDATED_BALANCE)
+                    .oldBalance(INITIAL_BALANCE)
+                    .newBalance(UPDATED_BALANCE)
+                    .createdAt(TIME)
+                    .build();
+            var history = WalletOperationHistory.builder()
+                    .walletID(WALLET_ID)
+                    .operations(List.of(item))
+                    .nextCursor("next")
+                    .build();
+
+            Mockito.when(walletService.getOperations(WALLET_ID, "cursor", 1)).thenReturn(history);
+
+            mockMvc.perform(get("/api/v1/wallets/{uuid}/operations", WALLET_ID)
+                            .param("cursor", "cursor")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.walletID").value(WALLET_ID.toString()))
+                    .andExpect(jsonPath("$.operations[0].operationID").value(42))
+                    .andExpect(jsonPath("$.operations[0].operationType").value(DEPOSIT.toString()))
+                    .andExpect(jsonPath("$.nextCursor").value("next"));
+        }
+
+        @Test
+        @DisplayName("Должен вернуть статус 400 для некорректного курсора")
+        void getWalletOperations_shouldRejectInvalidCursor() throws Exception {
+            Mockito.when(walletService.getOperations(WALLET_ID, "broken", 20))
+                    .thenThrow(new WalletOperationException("Invalid operations cursor broken"));
+
+            mockMvc.perform(get("/api/v1/wallets/{uuid}/operations", WALLET_ID)
+                            .param("cursor", "broken"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Должен вернуть статус 404, если кошелёк не найден")
+        void getWalletOperations_shouldReturnNotFound() throws Exception {
+            Mockito.when(walletService.getOperations(WALLET_ID, null, 20))
+                    .thenThrow(new EntityNotFoundException("Wallet Not Found For UUID " + WALLET_ID));
+
+            mockMvc.perform(get("/api/v1/wallets/{uuid}/operations", WALLET_ID))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
     @Nested
     @DisplayName("POST /wallets/{uuid}/deposit")
     class DepositWallet {
@@ -127,4 +255,37 @@ class WalletControllerTest {
                     .andExpect(jsonPath("$.operationTime").exists());
         }
     }
+
+    @Nested
+    @DisplayName("POST /wallets/{uuid}/payout")
+    class PayoutWallet {
+
+        @Test
+        @DisplayName("Должен вернуть статус 200 и новый баланс источника")
+        void payoutOperation_shouldReturnUpdatedBalance() throws Exception {
+            var request = new PayoutOperationRequest(List.of(
+                    new PayoutOperationRequest.PayoutItem(WALLET_ID_TO, UPDATED_BALANCE)));
+            var response = new WalletOperationResponse(PAYOUT, UPDATED_BALANCE, INITIAL_BALANCE, TIME);
+
+            Mockito.when(walletService.payout(WALLET_ID, request)).thenReturn(response);
+
+            mockMvc.perform(post("/api/v1/wallets/{uuid}/payout", WALLET_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(toJson(request))
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.newBalanceFrom").value(INITIAL_BALANCE))
+                    .andExpect(jsonPath("$.operationType").value(PAYOUT.toString()));
+        }
+
+        @Test
+        @DisplayName("Должен вернуть статус 400 для пустого списка выплат")
+        void payoutOperation_shouldRejectEmptyPayouts() throws Exception {
+            mockMvc.perform(post("/api/v1/wallets/{uuid}/payout", WALLET_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(toJson(new PayoutOperationRequest(List.of())))
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+    }
 }
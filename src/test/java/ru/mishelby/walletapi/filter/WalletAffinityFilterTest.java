@@ -0,0 +1,173 @@
+package ru.mishelby.walletapi.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.mishelby.walletapi.config.ClusterProperties;
+import ru.mishelby.walletapi.exception.ErrorResponse;
+import ru.mishelby.walletapi.model.ClusterNode;
+import ru.mishelby.walletapi.model.enums.MembershipSource;
+import ru.mishelby.walletapi.model.enums.RoutingMode;
+import ru.mishelby.walletapi.repository.ClusterNodeRepository;
+import ru.mishelby.walletapi.repository.WalletHoldRepository;
+import ru.mishelby.walletapi.service.ClusterMembershipService;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WalletAffinityFilterTest {
+
+    private static final ClusterNode NODE_1 = new ClusterNode("node-1", "http://localhost:8080");
+    private static final ClusterNode NODE_2 = new ClusterNode("node-2", "http://localhost:8083");
+
+    private final WalletHoldRepository walletHoldRepository = Mockito.mock(WalletHoldRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private ClusterMembershipService membershipService;
+    private WalletAffinityFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        createFilter(RoutingMode.REDIRECT, NODE_2);
+    }
+
+    @Test
+    @DisplayName("Операция над чужим кошельком направляется владельцу")
+    void doFilter_shouldRedirectWalletOperationToOwner() throws Exception {
+        var walletID = walletOwnedBy(NODE_2);
+
+        var response = filter(post("/api/v1/wallets/%s/deposit".formatted(walletID)), new MockFilterChain());
+
+        assertRedirectedTo(response, NODE_2, "/api/v1/wallets/%s/deposit".formatted(walletID));
+    }
+
+    @Test
+    @DisplayName("Выплата направляется владельцу кошелька-источника")
+    void doFilter_shouldRedirectPayoutToSourceOwner() throws Exception {
+        var walletID = walletOwnedBy(NODE_2);
+
+        var response = filter(post("/api/v1/wallets/%s/payout".formatted(walletID)), new MockFilterChain());
+
+        assertRedirectedTo(response, NODE_2, "/api/v1/wallets/%s/payout".formatted(walletID));
+    }
+
+    @Test
+    @DisplayName("Списание и освобождение холда направляются владельцу кошелька холда")
+    void doFilter_shouldRedirectHoldToWalletOwner() throws Exception {
+        var holdID = UUID.randomUUID();
+        Mockito.when(walletHoldRepository.findWalletIdById(holdID)).thenReturn(Optional.of(walletOwnedBy(NODE_2)));
+
+        for (var action : List.of("capture", "release")) {
+            var path = "/api/v1/wallets/holds/%s/%s".formatted(holdID, action);
+            var chain = new MockFilterChain();
+
+            var response = filter(post(path), chain);
+
+            assertRedirectedTo(response, NODE_2, path);
+            assertThat(chain.getRequest()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Холд своего кошелька и неизвестный холд обрабатываются локально")
+    void doFilter_shouldHandleOwnAndUnknownHoldLocally() throws Exception {
+        var ownHoldID = UUID.randomUUID();
+        var unknownHoldID = UUID.randomUUID();
+        Mockito.when(walletHoldRepository.findWalletIdById(ownHoldID)).thenReturn(Optional.of(walletOwnedBy(NODE_1)));
+        Mockito.when(walletHoldRepository.findWalletIdById(unknownHoldID)).thenReturn(Optional.empty());
+
+        for (var holdID : List.of(ownHoldID, unknownHoldID)) {
+            var chain = new MockFilterChain();
+
+            filter(post("/api/v1/wallets/holds/%s/capture".formatted(holdID)), chain);
+
+            assertThat(chain.getRequest()).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Запросы без кошелька и уже проксированные запросы обрабатываются локально без поиска владельца")
+    void doFilter_shouldSkipNonWalletAndForwardedRequests() throws Exception {
+        var statsChain = new MockFilterChain();
+        filter(new MockHttpServletRequest("GET", "/api/v1/wallets/stats"), statsChain);
+
+        var forwarded = post("/api/v1/wallets/holds/%s/capture".formatted(UUID.randomUUID()));
+        forwarded.addHeader(WalletAffinityFilter.FORWARDED_HEADER, NODE_2.id());
+        var forwardedChain = new MockFilterChain();
+        filter(forwarded, forwardedChain);
+
+        assertThat(statsChain.getRequest()).isNotNull();
+        assertThat(forwardedChain.getRequest()).isNotNull();
+        Mockito.verifyNoInteractions(walletHoldRepository);
+    }
+
+    @Test
+    @DisplayName("Если владелец принял соединение, но не ответил, клиент получает 504 с телом ErrorResponse")
+    void doFilter_shouldWriteErrorResponseWhenOwnerTimesOut() throws Exception {
+        // сокет принимает соединения в очередь, но не отвечает
+        try (var silentOwner = new ServerSocket(0)) {
+            createFilter(RoutingMode.FORWARD,
+                    new ClusterNode(NODE_2.id(), "http://localhost:" + silentOwner.getLocalPort()));
+            var path = "/api/v1/wallets/%s/deposit".formatted(walletOwnedBy(NODE_2));
+            var request = post(path);
+            request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            request.setContent("{\"amount\": 10.00}".getBytes());
+            var chain = new MockFilterChain();
+
+            var response = filter(request, chain);
+
+            assertThat(chain.getRequest()).isNull();
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT.value());
+            assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+            var error = objectMapper.readValue(response.getContentAsByteArray(), ErrorResponse.class);
+            assertThat(error.status()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT.value());
+            assertThat(error.instance()).isEqualTo(path);
+            assertThat(error.details()).contains(NODE_2.id());
+        }
+    }
+
+    private void createFilter(RoutingMode routingMode, ClusterNode node2) {
+        var properties = new ClusterProperties(true, NODE_1.id(), NODE_1.url(), routingMode,
+                MembershipSource.STATIC, List.of(NODE_1, node2), 128,
+                Duration.ofSeconds(5), Duration.ofSeconds(15), Duration.ofMillis(500));
+        membershipService = new ClusterMembershipService(properties, Mockito.mock(ClusterNodeRepository.class));
+        filter = new WalletAffinityFilter(membershipService, walletHoldRepository, properties, objectMapper);
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, MockFilterChain chain) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private UUID walletOwnedBy(ClusterNode node) {
+        return IntStream.range(0, 1_000)
+                .mapToObj(i -> UUID.nameUUIDFromBytes(("wallet-" + i).getBytes()))
+                .filter(walletID -> membershipService.ownerOf(walletID).id().equals(node.id()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static MockHttpServletRequest post(String path) {
+        return new MockHttpServletRequest("POST", path);
+    }
+
+    private static void assertRedirectedTo(MockHttpServletResponse response, ClusterNode node, String path) {
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TEMPORARY_REDIRECT.value());
+        assertThat(response.getHeader(HttpHeaders.LOCATION)).isEqualTo(node.url() + path);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.mishelby.walletapi.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    @DisplayName("Должен переводить BigDecimal в минимальные единицы и обратно")
+    void of_shouldRoundTripBigDecimal() {
+        var money = Money.of(new BigDecimal("1250.7"));
+
+        assertThat(money.minorUnits()).isEqualTo(125070L);
+        assertThat(money.toBigDecimal()).isEqualByComparingTo("1250.70");
+    }
+
+    @Test
+    @DisplayName("Должен отклонять сумму с точностью больше двух знаков")
+    void of_shouldRejectExcessScale() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("10.001")))
+                .isInstanceOf(WalletOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Должен выбрасывать исключение при переполнении")
+    void plus_shouldDetectOverflow() {
+        var max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> max.plus(Money.ofMinor(1L)))
+                .isInstanceOf(WalletOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Должен складывать, вычитать и сравнивать суммы")
+    void arithmetic_shouldWork() {
+        var balance = Money.of(new BigDecimal("100.00"));
+        var amount = Money.of(new BigDecimal("30.25"));
+
+        assertThat(balance.minus(amount).toBigDecimal()).isEqualByComparingTo("69.75");
+        assertThat(balance.plus(amount).toBigDecimal()).isEqualByComparingTo("130.25");
+        assertThat(amount.isLessThan(balance)).isTrue();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.mishelby.walletapi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mishelby.walletapi.model.ClusterNode;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistentHashRingTest {
+
+    private static final int VIRTUAL_NODES = 128;
+    private static final int WALLETS = 30_000;
+
+    private static final ClusterNode NODE_1 = new ClusterNode("node-1", "http://localhost:8080");
+    private static final ClusterNode NODE_2 = new ClusterNode("node-2", "http://localhost:8082");
+    private static final ClusterNode NODE_3 = new ClusterNode("node-3", "http://localhost:8083");
+    private static final ClusterNode NODE_4 = new ClusterNode("node-4", "http://localhost:8084");
+
+    private static final List<UUID> WALLET_IDS = IntStream.range(0, WALLETS)
+            .mapToObj(i -> UUID.nameUUIDFromBytes(("wallet-" + i).getBytes()))
+            .toList();
+
+    @Test
+    @DisplayName("Должен назначать владельца независимо от порядка экземпляров")
+    void ownerOf_shouldNotDependOnMemberOrder() {
+        var ring = new ConsistentHashRing(List.of(NODE_1, NODE_2, NODE_3), VIRTUAL_NODES);
+        var reversed = new ConsistentHashRing(List.of(NODE_3, NODE_2, NODE_1), VIRTUAL_NODES);
+
+        WALLET_IDS.forEach(walletID -> assertThat(ring.ownerOf(walletID)).isEqualTo(reversed.ownerOf(walletID)));
+    }
+
+    @Test
+    @DisplayName("Должен распределять кошельки между экземплярами примерно поровну")
+    void ownerOf_shouldSpreadWalletsEvenly() {
+        var ring = new ConsistentHashRing(List.of(NODE_1, NODE_2, NODE_3), VIRTUAL_NODES);
+
+        Map<ClusterNode, Integer> owned = new HashMap<>();
+        WALLET_IDS.forEach(walletID -> owned.merge(ring.ownerOf(walletID), 1, Integer::sum));
+
+        assertThat(owned).hasSize(3);
+        owned.values().forEach(count -> assertThat(count).isBetween(WALLETS / 3 * 3 / 4, WALLETS / 3 * 5 / 4));
+    }
+
+    @Test
+    @DisplayName("Должен переносить на новый экземпляр только его долю кошельков")
+    void ownerOf_shouldMoveOnlyNewNodeShare() {
+        var before = new ConsistentHashRing(List.of(NODE_1, NODE_2, NODE_3), VIRTUAL_NODES);
+        var after = new ConsistentHashRing(List.of(NODE_1, NODE_2, NODE_3, NODE_4), VIRTUAL_NODES);
+
+        long moved = WALLET_IDS.stream()
+                .filter(walletID -> !before.ownerOf(walletID).equals(after.ownerOf(walletID)))
+                .peek(walletID -> assertThat(after.ownerOf(walletID)).isEqualTo(NODE_4))
+                .count();
+
+        assertThat(moved).isBetween((long) WALLETS / 4 * 3 / 4, (long) WALLETS / 4 * 5 / 4);
+    }
+
+    @Test
+    @DisplayName("Должен выбрасывать исключение для пустого кольца")
+    void ownerOf_shouldRejectEmptyRing() {
+        var ring = new ConsistentHashRing(List.of(), VIRTUAL_NODES);
+
+        assertThatThrownBy(() -> ring.ownerOf(UUID.randomUUID()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.mishelby.walletapi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidRangePartitionerTest {
+
+    @Test
+    @DisplayName("Должен переводить UUID в беззнаковое число и обратно")
+    void toUnsigned_shouldRoundTrip() {
+        var uuid = UUID.fromString("ffffffff-0000-7000-8000-00000000ffff");
+
+        var value = UuidRangePartitioner.toUnsigned(uuid);
+
+        assertThat(value.signum()).isPositive();
+        assertThat(UuidRangePartitioner.toUuid(value)).isEqualTo(uuid);
+    }
+
+    @Test
+    @DisplayName("Должен делить отрезок на смежные диапазоны, покрывающие все идентификаторы")
+    void split_shouldCoverWholeRange() {
+        var first = UUID.fromString("019a0000-0000-7000-8000-000000000000");
+        var last = UUID.fromString("019affff-ffff-7fff-bfff-ffffffffffff");
+
+        var ranges = UuidRangePartitioner.split(first, last, 8);
+
+        assertThat(ranges).hasSize(8);
+        assertThat(UuidRangePartitioner.toUnsigned(ranges.get(0).lowerExclusive()))
+                .isEqualTo(UuidRangePartitioner.toUnsigned(first).subtract(BigInteger.ONE));
+        assertThat(ranges.get(ranges.size() - 1).upperInclusive()).isEqualTo(last);
+        for (var i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i).lowerExclusive()).isEqualTo(ranges.get(i - 1).upperInclusive());
+        }
+    }
+
+    @Test
+    @DisplayName("Должен возвращать один диапазон для единственного кошелька")
+    void split_shouldHandleSingleWallet() {
+        var uuid = UUID.fromString("019a9a1c-5f0e-7c41-9a57-3b0f2d6e8c11");
+
+        var ranges = UuidRangePartitioner.split(uuid, uuid, 16);
+
+        assertThat(ranges).hasSize(1);
+        assertThat(ranges.get(0).upperInclusive()).isEqualTo(uuid);
+    }
+}
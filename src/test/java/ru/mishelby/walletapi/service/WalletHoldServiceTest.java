@@ -0,0 +1,137 @@
+package ru.mishelby.walletapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.CreateWalletRequest;
+import ru.mishelby.walletapi.model.HoldCaptureRequest;
+import ru.mishelby.walletapi.model.HoldRequest;
+import ru.mishelby.walletapi.model.TransferOperationRequest;
+import ru.mishelby.walletapi.model.enums.HoldStatus;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверка жизненного цикла холдов {@link WalletHoldService} на настоящем PostgreSQL.
+ * <p>
+ * Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "preload.test-data=false",
+        "spring.jpa.show-sql=false",
+        "wallet.holds.reaper-enabled=false"
+})
+class WalletHoldServiceTest {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("100.00");
+    private static final BigDecimal HOLD_AMOUNT = new BigDecimal("80.00");
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WalletHoldService walletHoldService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID walletID;
+    private UUID walletIDTo;
+
+    @BeforeEach
+    void setUp() {
+        walletID = createWallet();
+        walletIDTo = createWallet();
+    }
+
+    @Test
+    @DisplayName("Должен отклонять списание истёкшего холда и не менять балансы")
+    void capture_shouldRejectExpiredHold() {
+        var hold = walletHoldService.reserve(walletID, new HoldRequest(HOLD_AMOUNT, null));
+        jdbcTemplate.update("UPDATE wallet_hold SET expires_at = localtimestamp - interval '1 minute' WHERE id = ?",
+                hold.holdID());
+
+        assertThatThrownBy(() -> walletHoldService.capture(hold.holdID(), new HoldCaptureRequest(walletIDTo)))
+                .isInstanceOf(WalletOperationException.class)
+                .hasMessageContaining("Hold has expired");
+
+        assertThat(balance(walletID)).isEqualByComparingTo(INITIAL_BALANCE);
+        assertThat(balance(walletIDTo)).isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    @Test
+    @DisplayName("Должен отклонять списание освобождённого холда")
+    void capture_shouldRejectReleasedHold() {
+        var hold = walletHoldService.reserve(walletID, new HoldRequest(HOLD_AMOUNT, null));
+        var released = walletHoldService.release(hold.holdID());
+
+        assertThat(released.status()).isEqualTo(HoldStatus.RELEASED);
+        assertThat(released.availableBalance()).isEqualByComparingTo(INITIAL_BALANCE);
+        assertThatThrownBy(() -> walletHoldService.capture(hold.holdID(), new HoldCaptureRequest(walletIDTo)))
+                .isInstanceOf(WalletOperationException.class)
+                .hasMessageContaining("Hold is RELEASED");
+
+        assertThat(balance(walletIDTo)).isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    @Test
+    @DisplayName("Должен списывать холд только один раз")
+    void capture_shouldRejectSecondCapture() {
+        var hold = walletHoldService.reserve(walletID, new HoldRequest(HOLD_AMOUNT, null));
+        var captured = walletHoldService.capture(hold.holdID(), new HoldCaptureRequest(walletIDTo));
+
+        assertThat(captured.status()).isEqualTo(HoldStatus.CAPTURED);
+        assertThatThrownBy(() -> walletHoldService.capture(hold.holdID(), new HoldCaptureRequest(walletIDTo)))
+                .isInstanceOf(WalletOperationException.class)
+                .hasMessageContaining("Hold is CAPTURED");
+
+        assertThat(balance(walletID)).isEqualByComparingTo(INITIAL_BALANCE.subtract(HOLD_AMOUNT));
+        assertThat(balance(walletIDTo)).isEqualByComparingTo(INITIAL_BALANCE.add(HOLD_AMOUNT));
+    }
+
+    @Test
+    @DisplayName("Перевод не может использовать зарезервированные средства")
+    void withdraw_shouldBeBlockedByHeldBalance() {
+        walletHoldService.reserve(walletID, new HoldRequest(HOLD_AMOUNT, null));
+
+        assertThatThrownBy(() -> walletService.withdraw(walletID,
+                new TransferOperationRequest(walletIDTo, new BigDecimal("30.00"))))
+                .isInstanceOf(WalletOperationException.class)
+                .hasMessageContaining("Not enough balance");
+        assertThat(balance(walletID)).isEqualByComparingTo(INITIAL_BALANCE);
+
+        walletService.withdraw(walletID, new TransferOperationRequest(walletIDTo, new BigDecimal("20.00")));
+
+        assertThat(balance(walletID)).isEqualByComparingTo(new BigDecimal("80.00"));
+        assertThatThrownBy(() -> walletHoldService.reserve(walletID, new HoldRequest(new BigDecimal("0.01"), null)))
+                .isInstanceOf(WalletOperationException.class)
+                .hasMessageContaining("Not enough balance");
+    }
+
+    private UUID createWallet() {
+        return walletService.createWallet(
+                new CreateWalletRequest(INITIAL_BALANCE, YearMonth.now().plusYears(1))).walletID();
+    }
+
+    private BigDecimal balance(UUID walletID) {
+        return walletService.getBalance(walletID).balance();
+    }
+}
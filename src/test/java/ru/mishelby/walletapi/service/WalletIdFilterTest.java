@@ -0,0 +1,133 @@
+package ru.mishelby.walletapi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mishelby.walletapi.model.converter.YearMonthConverter;
+import ru.mishelby.walletapi.model.generator.UuidV7Generator;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверка {@link WalletIdFilter} на настоящем PostgreSQL.
+ * <p>
+ * Кошельки вставляются SQL-запросом в обход приложения, как если бы их создал другой экземпляр:
+ * локальный фильтр о них не знает. Запас {@code bypass-margin} отключён, чтобы проверялась сама граница.
+ * Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "preload.test-data=false",
+        "spring.jpa.show-sql=false",
+        "wallet.holds.reaper-enabled=false",
+        "wallet.id-filter.bypass-margin=0s"
+})
+class WalletIdFilterTest {
+
+    private static final String INSERT_WALLET = """
+            INSERT INTO wallet (id, balance, created_at, expiration_date)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WalletIdFilter walletIdFilter;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Кошелёк с меткой времени до построения, зафиксированный после него, не отклоняется")
+    void mightExist_shouldPassWalletCommittedAfterRebuild() throws InterruptedException {
+        var walletID = new AtomicReference<UUID>();
+        var failure = new AtomicReference<Throwable>();
+        var inserted = new CountDownLatch(1);
+        var rebuilt = new CountDownLatch(1);
+
+        // транзакция другого экземпляра: идентификатор сгенерирован до построения, фиксация — после
+        var writer = new Thread(() -> {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                    walletID.set(UuidV7Generator.next());
+                    insertWallet(walletID.get());
+                    inserted.countDown();
+                    await(rebuilt);
+                });
+            } catch (Throwable e) {
+                failure.set(e);
+                inserted.countDown();
+            }
+        });
+        writer.start();
+        assertThat(inserted.await(30, TimeUnit.SECONDS)).isTrue();
+
+        walletIdFilter.rebuild();
+        rebuilt.countDown();
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+
+        assertThat(failure.get()).isNull();
+        assertThat(walletIdFilter.mightExist(walletID.get())).isTrue();
+        assertThat(walletService.getBalance(walletID.get()).walletID()).isEqualTo(walletID.get());
+    }
+
+    @Test
+    @DisplayName("Идентификатор не версии 7 проверяется в базе данных, а не фильтром")
+    void mightExist_shouldPassNonV7WalletCreatedElsewhere() {
+        walletIdFilter.rebuild();
+        var walletID = UUID.randomUUID();
+        insertWallet(walletID);
+
+        assertThat(walletIdFilter.mightExist(walletID)).isTrue();
+        assertThat(walletService.getBalance(walletID).walletID()).isEqualTo(walletID);
+    }
+
+    @Test
+    @DisplayName("Неизвестный UUIDv7 старше границы отклоняется без запроса к базе данных")
+    void mightExist_shouldRejectUnknownV7OlderThanWatermark() {
+        walletIdFilter.rebuild();
+        long createdAtMillis = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        var walletID = new UUID((createdAtMillis << 16) | 0x7000L, 0x8000000000000001L);
+
+        assertThat(walletIdFilter.mightExist(walletID)).isFalse();
+    }
+
+    private void insertWallet(UUID walletID) {
+        jdbcTemplate.update(INSERT_WALLET, walletID, BigDecimal.TEN, Timestamp.valueOf(LocalDateTime.now()),
+                new YearMonthConverter().convertToDatabaseColumn(YearMonth.now().plusYears(1)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
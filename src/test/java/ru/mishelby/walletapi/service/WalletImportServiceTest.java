@@ -0,0 +1,82 @@
+package ru.mishelby.walletapi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mishelby.walletapi.model.WalletImportReport;
+import ru.mishelby.walletapi.model.WalletImportReport.ImportedWallet;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверка {@link WalletImportService} на настоящем PostgreSQL.
+ * <p>
+ * Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "preload.test-data=false",
+        "spring.jpa.show-sql=false",
+        "wallet.holds.reaper-enabled=false",
+        "wallet.import.chunk-size=2"
+})
+class WalletImportServiceTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WalletImportService walletImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Отчёт сопоставляет каждую принятую строку с идентификатором созданного кошелька")
+    void importWallets_shouldReturnWalletIdPerAcceptedLine() {
+        var expiration = YearMonth.now().plusYears(1);
+        var csv = """
+                initialBalance,expirationDate
+                10.00,%1$s
+                20.00,%1$s
+                -1,%1$s
+                30.00,%1$s
+                40.00,2000-01
+                50.00,%1$s
+                """.formatted(expiration);
+        Map<Long, BigDecimal> expectedBalances = Map.of(
+                2L, new BigDecimal("10.00"),
+                3L, new BigDecimal("20.00"),
+                5L, new BigDecimal("30.00"),
+                7L, new BigDecimal("50.00"));
+
+        WalletImportReport report = walletImportService.importWallets(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), WalletImportService.TEXT_CSV);
+
+        assertThat(report.importedRows()).isEqualTo(4);
+        assertThat(report.rejectedRows()).isEqualTo(2);
+        assertThat(report.wallets()).extracting(ImportedWallet::line).containsExactly(2L, 3L, 5L, 7L);
+        assertThat(report.wallets()).extracting(ImportedWallet::walletID).doesNotHaveDuplicates();
+        assertThat(report.errors()).extracting(WalletImportReport.RowError::line).containsExactly(4L, 6L);
+
+        for (var wallet : report.wallets()) {
+            BigDecimal balance = jdbcTemplate.queryForObject(
+                    "SELECT balance FROM wallet WHERE id = ?", BigDecimal.class, wallet.walletID());
+            assertThat(balance).as("balance of line %d", wallet.line())
+                    .isEqualByComparingTo(expectedBalances.get(wallet.line()));
+        }
+    }
+}
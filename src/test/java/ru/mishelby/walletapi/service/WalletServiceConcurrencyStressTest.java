@@ -0,0 +1,223 @@
+package ru.mishelby.walletapi.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.CreateWalletRequest;
+import ru.mishelby.walletapi.model.DepositOperationRequest;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.PayoutOperationRequest;
+import ru.mishelby.walletapi.model.PayoutOperationRequest.PayoutItem;
+import ru.mishelby.walletapi.model.TransferOperationRequest;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочная проверка {@link WalletService} на настоящем PostgreSQL.
+ * <p>
+ * Тысячи пополнений и встречных переводов между небольшим числом кошельков выполняются параллельно,
+ * после чего проверяются инварианты: общая сумма денег сохраняется, балансы не отрицательны,
+ * итоговый баланс каждого кошелька равен начальному плюс сумма изменений всех успешных операций
+ * (нет потерянных обновлений) и совпадает с журналом операций. Пропускная способность пишется в лог
+ * и может быть ограничена снизу параметром {@code stress.minOpsPerSecond}.
+ * <p>
+ * Без Docker тест пропускается.
+ */
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "preload.test-data=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate=WARN",
+        "logging.level.ru.mishelby.walletapi=WARN",
+        "logging.level.ru.mishelby.walletapi.service.WalletServiceConcurrencyStressTest=INFO",
+        "wallet.holds.reaper-enabled=false"
+})
+class WalletServiceConcurrencyStressTest {
+
+    private static final int WALLETS = Integer.getInteger("stress.wallets", 16);
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 5_000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 32);
+    private static final long MIN_OPS_PER_SECOND = Long.getLong("stress.minOpsPerSecond", 0L);
+
+    private static final Money INITIAL_BALANCE = Money.of(new BigDecimal("1000.00"));
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Параллельные пополнения и переводы сохраняют деньги и не теряют обновления")
+    void concurrentDepositsAndTransfers_shouldPreserveInvariants() throws InterruptedException {
+        List<UUID> wallets = createWallets(WALLETS);
+        Map<UUID, LongAdder> expectedDelta = new ConcurrentHashMap<>();
+        wallets.forEach(walletID -> expectedDelta.put(walletID, new LongAdder()));
+
+        var deposited = new AtomicLong();
+        var succeeded = new LongAdder();
+        var rejected = new LongAdder();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        var done = new CountDownLatch(OPERATIONS);
+        long startedAt = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (var i = 0; i < OPERATIONS; i++) {
+                executor.execute(() -> {
+                    try {
+                        runRandomOperation(wallets, expectedDelta, deposited);
+                        succeeded.increment();
+                    } catch (WalletOperationException e) {
+                        rejected.increment();
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        double opsPerSecond = OPERATIONS / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+
+        log.info("[INFO] Stress: {} operations ({} ok, {} rejected) with {} threads in {} ms: {} ops/s",
+                OPERATIONS, succeeded.sum(), rejected.sum(), THREADS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), "%.0f".formatted(opsPerSecond));
+
+        assertThat(failures).as("unexpected failures").isEmpty();
+        assertThat(succeeded.sum()).isPositive();
+
+        long totalBalance = 0;
+        for (var walletID : wallets) {
+            Money balance = Money.of(walletService.getBalance(walletID).balance());
+            long expected = INITIAL_BALANCE.minorUnits() + expectedDelta.get(walletID).sum();
+
+            assertThat(balance.signum()).as("balance of %s", walletID).isNotNegative();
+            assertThat(balance.minorUnits()).as("lost update on %s", walletID).isEqualTo(expected);
+            assertThat(journalBalance(walletID)).as("journal of %s", walletID).isEqualTo(balance);
+            totalBalance += balance.minorUnits();
+        }
+        assertThat(totalBalance).as("total money")
+                .isEqualTo(INITIAL_BALANCE.minorUnits() * WALLETS + deposited.get());
+
+        assertThat(opsPerSecond).as("throughput, ops/s").isGreaterThanOrEqualTo(MIN_OPS_PER_SECOND);
+    }
+
+    @Test
+    @DisplayName("Встречные выплаты не приводят к взаимоблокировке и сохраняют деньги")
+    void opposingPayouts_shouldNotDeadlock() throws InterruptedException {
+        List<UUID> wallets = createWallets(3);
+        Money amount = Money.of(new BigDecimal("0.01"));
+        int payouts = Math.max(OPERATIONS / 10, 100);
+
+        var succeeded = new LongAdder();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        var done = new CountDownLatch(payouts);
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (var i = 0; i < payouts; i++) {
+                // каждый кошелёк по очереди платит двум остальным: источник одной выплаты
+                // всегда является получателем встречных
+                UUID walletID = wallets.get(i % wallets.size());
+                var request = new PayoutOperationRequest(wallets.stream()
+                        .filter(walletIDTo -> !walletIDTo.equals(walletID))
+                        .map(walletIDTo -> new PayoutItem(walletIDTo, amount.toBigDecimal()))
+                        .toList());
+                executor.execute(() -> {
+                    try {
+                        walletService.payout(walletID, request);
+                        succeeded.increment();
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        }
+
+        assertThat(failures).as("deadlocks or unexpected failures").isEmpty();
+        assertThat(succeeded.sum()).isEqualTo(payouts);
+
+        long totalBalance = 0;
+        for (var walletID : wallets) {
+            Money balance = Money.of(walletService.getBalance(walletID).balance());
+            assertThat(journalBalance(walletID)).as("journal of %s", walletID).isEqualTo(balance);
+            totalBalance += balance.minorUnits();
+        }
+        assertThat(totalBalance).as("total money").isEqualTo(INITIAL_BALANCE.minorUnits() * wallets.size());
+    }
+
+    private List<UUID> createWallets(int count) {
+        List<UUID> wallets = new ArrayList<>(count);
+        var expirationDate = YearMonth.now().plusYears(1);
+        for (var i = 0; i < count; i++) {
+            wallets.add(walletService.createWallet(
+                    new CreateWalletRequest(INITIAL_BALANCE.toBigDecimal(), expirationDate)).walletID());
+        }
+        return wallets;
+    }
+
+    /**
+     * Треть операций — пополнения, остальные — переводы между случайными разными кошельками.
+     * Ожидаемые изменения балансов учитываются только после успешного выполнения операции.
+     */
+    private void runRandomOperation(List<UUID> wallets, Map<UUID, LongAdder> expectedDelta, AtomicLong deposited) {
+        var random = ThreadLocalRandom.current();
+        UUID walletID = wallets.get(random.nextInt(wallets.size()));
+        Money amount = Money.ofMinor(random.nextLong(1, 30_000));
+
+        if (random.nextInt(3) == 0) {
+            walletService.deposit(walletID, new DepositOperationRequest(amount.toBigDecimal()));
+            expectedDelta.get(walletID).add(amount.minorUnits());
+            deposited.addAndGet(amount.minorUnits());
+            return;
+        }
+
+        UUID walletIDTo;
+        do {
+            walletIDTo = wallets.get(random.nextInt(wallets.size()));
+        } while (walletIDTo.equals(walletID));
+
+        walletService.withdraw(walletID, new TransferOperationRequest(walletIDTo, amount.toBigDecimal()));
+        expectedDelta.get(walletID).add(-amount.minorUnits());
+        expectedDelta.get(walletIDTo).add(amount.minorUnits());
+    }
+
+    private Money journalBalance(UUID walletID) {
+        return Money.of(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(sum(amount), 0) FROM wallet_operation WHERE wallet_id = ?",
+                BigDecimal.class, walletID));
+    }
+}
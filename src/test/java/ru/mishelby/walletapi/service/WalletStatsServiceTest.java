@@ -0,0 +1,168 @@
+package ru.mishelby.walletapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.mishelby.walletapi.config.WalletStatsProperties;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.WalletStatsResponse;
+import ru.mishelby.walletapi.repository.WalletOperationJournal.Entry;
+import ru.mishelby.walletapi.repository.WalletStatsRepository;
+import ru.mishelby.walletapi.repository.WalletStatsRepository.Totals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static ru.mishelby.walletapi.model.enums.OperationType.DEPOSIT;
+import static ru.mishelby.walletapi.model.enums.OperationType.OPENING;
+
+class WalletStatsServiceTest {
+
+    private static final Money HUNDRED = Money.ofMinor(10_000);
+    private static final Money TEN = Money.ofMinor(1_000);
+
+    private final WalletStatsRepository statsRepository = Mockito.mock(WalletStatsRepository.class);
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+    private WalletStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        Mockito.when(statsRepository.findTotals()).thenReturn(new Totals(0, Money.ZERO));
+        statsService = new WalletStatsService(statsRepository,
+                new WalletStatsProperties(Duration.ofSeconds(5), Duration.ofHours(24), "-", Duration.ofHours(1)),
+                transactionManager);
+    }
+
+    @Test
+    @DisplayName("Изменения после неудачного сброса сохраняются и записываются следующим сбросом")
+    void flush_shouldKeepChangesAfterFailure() {
+        statsService.recordAfterCommit(List.of(opening(HUNDRED)));
+        Mockito.when(statsRepository.addTotals(anyLong(), any(), any()))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenReturn(new Totals(1, HUNDRED));
+
+        statsService.flush();
+        assertStats(statsService.getStats(null, null), 1, HUNDRED);
+
+        statsService.flush();
+        Mockito.verify(statsRepository, Mockito.times(2)).addTotals(eq(1L), eq(HUNDRED), any());
+        assertStats(statsService.getStats(null, null), 1, HUNDRED);
+
+        statsService.flush();
+        Mockito.verify(statsRepository, Mockito.times(2)).addTotals(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Операция, учтённая во время сброса, не теряется и не учитывается дважды")
+    void flush_shouldKeepRecordConcurrentWithFlush() {
+        UUID walletID = UUID.randomUUID();
+        statsService.recordAfterCommit(List.of(opening(walletID, HUNDRED)));
+        Mockito.when(statsRepository.addTotals(anyLong(), any(), any())).thenAnswer(invocation -> {
+            // операция фиксируется, пока сброс пишет в БД уже снятые значения счётчиков
+            statsService.recordAfterCommit(List.of(deposit(walletID, HUNDRED, TEN)));
+            return new Totals(1, HUNDRED);
+        });
+
+        statsService.flush();
+
+        Mockito.verify(statsRepository).addTotals(eq(1L), eq(HUNDRED), any());
+        assertStats(statsService.getStats(null, null), 1, HUNDRED.plus(TEN));
+
+        Mockito.doReturn(new Totals(1, HUNDRED.plus(TEN))).when(statsRepository).addTotals(anyLong(), any(), any());
+        statsService.flush();
+
+        Mockito.verify(statsRepository).addTotals(eq(0L), eq(TEN), any());
+        assertStats(statsService.getStats(null, null), 1, HUNDRED.plus(TEN));
+    }
+
+    @Test
+    @DisplayName("Пересчёт не выполняется, если его уже выполняет другой экземпляр")
+    void recount_shouldBeSkippedWhenLockedByAnotherInstance() {
+        statsService.recordAfterCommit(List.of(opening(HUNDRED)));
+        Mockito.when(statsRepository.tryLockRecount()).thenReturn(false);
+
+        statsService.recount();
+
+        Mockito.verify(statsRepository, Mockito.never()).recountTotals(any());
+        assertStats(statsService.getStats(null, null), 1, HUNDRED);
+    }
+
+    @Test
+    @DisplayName("Пересчёт не выполняется, если итоги недавно пересчитаны")
+    void recount_shouldBeSkippedWhenRecentlyRecounted() {
+        Mockito.when(statsRepository.tryLockRecount()).thenReturn(true);
+        Mockito.when(statsRepository.isRecountDue(any())).thenReturn(false);
+
+        statsService.recount();
+
+        Mockito.verify(statsRepository, Mockito.never()).recountTotals(any());
+    }
+
+    @Test
+    @DisplayName("Пересчёт заменяет итоги, несброшенные изменения уже входят в него и повторно не пишутся")
+    void recount_shouldReplaceTotalsIncludingPendingChanges() {
+        statsService.recordAfterCommit(List.of(opening(HUNDRED)));
+        Mockito.when(statsRepository.tryLockRecount()).thenReturn(true);
+        Mockito.when(statsRepository.isRecountDue(any())).thenReturn(true);
+        Mockito.when(statsRepository.recountTotals(any())).thenReturn(new Totals(2, HUNDRED.plus(TEN)));
+
+        statsService.recount();
+
+        assertStats(statsService.getStats(null, null), 2, HUNDRED.plus(TEN));
+
+        Mockito.when(statsRepository.addTotals(anyLong(), any(), any())).thenReturn(new Totals(2, HUNDRED.plus(TEN)));
+        statsService.flush();
+
+        Mockito.verify(statsRepository).addTotals(eq(0L), eq(Money.ZERO), any());
+        assertStats(statsService.getStats(null, null), 2, HUNDRED.plus(TEN));
+    }
+
+    @Test
+    @DisplayName("Операция, учтённая во время пересчёта, остаётся несброшенной")
+    void recount_shouldKeepRecordConcurrentWithRecount() {
+        UUID walletID = UUID.randomUUID();
+        Mockito.when(statsRepository.tryLockRecount()).thenReturn(true);
+        Mockito.when(statsRepository.isRecountDue(any())).thenReturn(true);
+        Mockito.when(statsRepository.recountTotals(any())).thenAnswer(invocation -> {
+            // операция фиксируется после снимка, по которому считается пересчёт
+            statsService.recordAfterCommit(List.of(deposit(walletID, HUNDRED, TEN)));
+            return new Totals(1, HUNDRED);
+        });
+
+        statsService.recount();
+
+        assertStats(statsService.getStats(null, null), 1, HUNDRED.plus(TEN));
+
+        Mockito.when(statsRepository.addTotals(anyLong(), any(), any())).thenReturn(new Totals(1, HUNDRED.plus(TEN)));
+        statsService.flush();
+
+        Mockito.verify(statsRepository).addTotals(eq(0L), eq(TEN), any());
+    }
+
+    private static void assertStats(WalletStatsResponse stats, long walletCount, Money totalBalance) {
+        assertThat(stats.walletCount()).isEqualTo(walletCount);
+        assertThat(stats.totalBalance()).isEqualByComparingTo(totalBalance.toBigDecimal());
+    }
+
+    private static Entry opening(Money balance) {
+        return opening(UUID.randomUUID(), balance);
+    }
+
+    private static Entry opening(UUID walletID, Money balance) {
+        return new Entry(walletID, null, OPENING, Money.ZERO, balance);
+    }
+
+    private static Entry deposit(UUID walletID, Money oldBalance, Money amount) {
+        return new Entry(walletID, null, DEPOSIT, oldBalance, oldBalance.plus(amount));
+    }
+}
@@ -0,0 +1,90 @@
+package ru.mishelby.walletapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpscRingBufferTest {
+
+    private static final int PRODUCERS = 8;
+    private static final long EVENTS_PER_PRODUCER = 100_000;
+
+    @Test
+    @DisplayName("Должен отклонять элементы при заполненном буфере")
+    void offer_shouldRejectWhenFull() {
+        var buffer = new MpscRingBuffer<Integer>(4);
+
+        for (var i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    @DisplayName("Должен доставлять все элементы производителей в порядке каждого производителя")
+    void offer_shouldDeliverEveryElementFromConcurrentProducers() throws InterruptedException {
+        var buffer = new MpscRingBuffer<Long>(1024);
+        var started = new CountDownLatch(1);
+        long[] lastSeen = new long[PRODUCERS];
+        Arrays.fill(lastSeen, -1);
+        long received = 0;
+
+        try (var executor = Executors.newFixedThreadPool(PRODUCERS)) {
+            for (var producer = 0; producer < PRODUCERS; producer++) {
+                long offset = producer * EVENTS_PER_PRODUCER;
+                executor.execute(() -> {
+                    awaitQuietly(started);
+                    for (long i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                        while (!buffer.offer(offset + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                });
+            }
+            started.countDown();
+
+            while (received < PRODUCERS * EVENTS_PER_PRODUCER) {
+                Long element = buffer.poll();
+                if (element == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                int producer = (int) (element / EVENTS_PER_PRODUCER);
+                assertThat(element % EVENTS_PER_PRODUCER).isEqualTo(lastSeen[producer] + 1);
+                lastSeen[producer] = element % EVENTS_PER_PRODUCER;
+                received++;
+            }
+        }
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Должен требовать ёмкость, равную степени двойки")
+    void constructor_shouldRejectCapacityNotPowerOfTwo() {
+        assertThatThrownBy(() -> new MpscRingBuffer<>(1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.mishelby.walletapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OperationCursorTest {
+
+    @Test
+    @DisplayName("Должен восстанавливать курсор из закодированной строки")
+    void decode_shouldRoundTripEncode() {
+        var cursor = new OperationCursor(LocalDateTime.of(2025, 11, 16, 12, 30, 5, 123_456_000), 987_654_321L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(OperationCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Должен отклонять строку, которая не является base64url")
+    void decode_shouldRejectInvalidBase64() {
+        assertThatThrownBy(() -> OperationCursor.decode("not a cursor!"))
+                .isInstanceOf(WalletOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Должен отклонять курсор без разделителя или с некорректными полями")
+    void decode_shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> OperationCursor.decode(encode("2025-11-16T12:30:05")))
+                .isInstanceOf(WalletOperationException.class);
+        assertThatThrownBy(() -> OperationCursor.decode(encode("yesterday|42")))
+                .isInstanceOf(WalletOperationException.class);
+        assertThatThrownBy(() -> OperationCursor.decode(encode("2025-11-16T12:30:05|last")))
+                .isInstanceOf(WalletOperationException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+}
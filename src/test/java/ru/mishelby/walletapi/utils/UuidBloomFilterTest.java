@@ -0,0 +1,55 @@
+package ru.mishelby.walletapi.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mishelby.walletapi.model.generator.UuidV7Generator;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidBloomFilterTest {
+
+    private static final int WALLETS = 100_000;
+    private static final int PROBES = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final long MAX_BYTES = 1L << 20;
+
+    @Test
+    @DisplayName("Должен находить все добавленные идентификаторы")
+    void mightContain_shouldHaveNoFalseNegatives() {
+        var filter = UuidBloomFilter.create(WALLETS, FALSE_POSITIVE_RATE, MAX_BYTES);
+        List<UUID> walletIDs = IntStream.range(0, WALLETS).mapToObj(i -> UuidV7Generator.next()).toList();
+
+        walletIDs.forEach(filter::put);
+
+        assertThat(walletIDs).allMatch(filter::mightContain);
+    }
+
+    @Test
+    @DisplayName("Должен пропускать неизвестные идентификаторы с заданной долей ложных срабатываний")
+    void mightContain_shouldKeepFalsePositiveRateNearConfigured() {
+        var filter = UuidBloomFilter.create(WALLETS, FALSE_POSITIVE_RATE, MAX_BYTES);
+        IntStream.range(0, WALLETS).forEach(i -> filter.put(UuidV7Generator.next()));
+
+        long falsePositives = IntStream.range(0, PROBES)
+                .filter(i -> filter.mightContain(UUID.randomUUID()))
+                .count();
+
+        assertThat((double) falsePositives / PROBES).isLessThan(FALSE_POSITIVE_RATE * 2);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    @DisplayName("Должен ограничивать размер битового массива")
+    void create_shouldRespectMemoryLimit() {
+        var filter = UuidBloomFilter.create(10_000_000, FALSE_POSITIVE_RATE, MAX_BYTES);
+
+        assertThat(filter.sizeInBytes()).isLessThanOrEqualTo(MAX_BYTES);
+        assertThatThrownBy(() -> UuidBloomFilter.create(WALLETS, 1.5, MAX_BYTES))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.mishelby.walletapi.model;
+
+import ru.mishelby.walletapi.exception.WalletOperationException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежная сумма в минимальных единицах валюты (копейках).
+ * <p>
+ * Используется во внутренней арифметике операций над кошельками вместо {@link BigDecimal}:
+ * сложение, вычитание и сравнение выполняются над {@code long} без лишних аллокаций.
+ * {@link BigDecimal} остаётся только на границе API и базы данных
+ * (см. {@link #of(BigDecimal)} и {@link #toBigDecimal()}).
+ * <p>
+ * Масштаб совпадает с колонкой {@code numeric(19,2)}: одна единица — 0.01.
+ * Все операции проверяют переполнение и выбрасывают {@link WalletOperationException}.
+ *
+ * @param minorUnits сумма в минимальных единицах
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0L);
+
+    /**
+     * Создаёт сумму из значения {@link BigDecimal}.
+     *
+     * @param amount сумма в основных единицах валюты
+     * @return сумма в минимальных единицах
+     * @throws WalletOperationException если у суммы больше двух знаков после запятой или она не помещается в {@code long}
+     */
+    public static Money of(BigDecimal amount) {
+        try {
+            return new Money(amount.setScale(SCALE, RoundingMode.UNNECESSARY)
+                    .unscaledValue()
+                    .longValueExact());
+        } catch (ArithmeticException e) {
+            throw new WalletOperationException("Incorrect amount", e);
+        }
+    }
+
+    /**
+     * Создаёт сумму из количества минимальных единиц.
+     *
+     * @param minorUnits сумма в минимальных единицах
+     * @return сумма
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Складывает суммы.
+     *
+     * @param other слагаемое
+     * @return сумма
+     * @throws WalletOperationException при переполнении
+     */
+    public Money plus(Money other) {
+        try {
+            return new Money(Math.addExact(minorUnits, other.minorUnits));
+        } catch (ArithmeticException e) {
+            throw new WalletOperationException("Balance overflow", e);
+        }
+    }
+
+    /**
+     * Вычитает сумму.
+     *
+     * @param other вычитаемое
+     * @return разность
+     * @throws WalletOperationException при переполнении
+     */
+    public Money minus(Money other) {
+        try {
+            return new Money(Math.subtractExact(minorUnits, other.minorUnits));
+        } catch (ArithmeticException e) {
+            throw new WalletOperationException("Balance overflow", e);
+        }
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    /**
+     * Преобразует сумму в {@link BigDecimal} с масштабом {@link #SCALE}.
+     *
+     * @return сумма в основных единицах валюты
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -4,6 +4,9 @@ import lombok.Getter;
 
 @Getter
 public enum OperationType {
+    OPENING,
     DEPOSIT,
-    WITHDRAW
+    WITHDRAW,
+    PAYOUT,
+    HOLD_CAPTURE
 }
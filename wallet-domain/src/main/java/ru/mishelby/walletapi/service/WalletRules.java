@@ -0,0 +1,121 @@
+package ru.mishelby.walletapi.service;
+
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.Money;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Доменные правила операций над кошельками.
+ * <p>
+ * Общие для сервлетного стека на JPA и реактивного стека на R2DBC, чтобы обе реализации
+ * отклоняли одни и те же операции с одинаковыми сообщениями.
+ */
+public final class WalletRules {
+
+    /**
+     * Порядок захвата блокировок строк кошельков.
+     * <p>
+     * Совпадает с порядком типа {@code uuid} в PostgreSQL (беззнаковое побайтовое сравнение),
+     * поэтому {@code ORDER BY id} и сортировка в приложении дают одну и ту же последовательность.
+     */
+    public static final Comparator<UUID> LOCK_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private WalletRules() {
+    }
+
+    /**
+     * Проверяет, что сумма операции не отрицательная.
+     *
+     * @param amount сумма операции
+     * @throws WalletOperationException если сумма отрицательная
+     */
+    public static void requireNonNegativeAmount(Money amount) {
+        if (amount.signum() < 0) {
+            throw incorrectAmount();
+        }
+    }
+
+    /**
+     * Проверяет, что на кошельке достаточно средств.
+     *
+     * @param walletID  UUID кошелька
+     * @param available доступный баланс
+     * @param amount    сумма списания
+     * @throws WalletOperationException если доступный баланс меньше суммы списания
+     */
+    public static void requireSufficientBalance(UUID walletID, Money available, Money amount) {
+        if (available.isLessThan(amount)) {
+            throw notEnoughBalance(walletID);
+        }
+    }
+
+    /**
+     * Проверяет, что кошелёк не заморожен из-за истечения срока действия.
+     *
+     * @param walletID UUID кошелька
+     * @param frozen   признак заморозки
+     * @throws WalletOperationException если кошелёк заморожен
+     */
+    public static void requireNotFrozen(UUID walletID, boolean frozen) {
+        if (frozen) {
+            throw walletFrozen(walletID);
+        }
+    }
+
+    /**
+     * Проверяет, что перевод выполняется между разными кошельками.
+     *
+     * @param walletID   UUID кошелька-отправителя
+     * @param walletIDTo UUID кошелька-получателя
+     * @throws WalletOperationException если отправитель и получатель совпадают
+     */
+    public static void requireDistinctWallets(UUID walletID, UUID walletIDTo) {
+        if (walletID.equals(walletIDTo)) {
+            throw sameWallet(walletID);
+        }
+    }
+
+    /**
+     * Создаёт исключение для отрицательной суммы операции.
+     *
+     * @return {@link WalletOperationException} с сообщением об ошибке
+     */
+    public static WalletOperationException incorrectAmount() {
+        return new WalletOperationException("Incorrect amount");
+    }
+
+    /**
+     * Создаёт исключение для списания сверх доступного баланса.
+     *
+     * @param walletID UUID кошелька
+     * @return {@link WalletOperationException} с сообщением об ошибке
+     */
+    public static WalletOperationException notEnoughBalance(UUID walletID) {
+        return new WalletOperationException("Not enough balance! Wallet ID %s".formatted(walletID));
+    }
+
+    /**
+     * Создаёт исключение для операции над замороженным кошельком.
+     *
+     * @param walletID UUID кошелька
+     * @return {@link WalletOperationException} с сообщением об ошибке
+     */
+    public static WalletOperationException walletFrozen(UUID walletID) {
+        return new WalletOperationException("Wallet is frozen! Wallet ID %s".formatted(walletID));
+    }
+
+    /**
+     * Создаёт исключение для перевода на кошелёк-отправитель.
+     *
+     * @param walletID UUID кошелька
+     * @return {@link WalletOperationException} с сообщением об ошибке
+     */
+    public static WalletOperationException sameWallet(UUID walletID) {
+        return new WalletOperationException("Transfer to the source wallet is not allowed! Wallet ID %s"
+                .formatted(walletID));
+    }
+}
@@ -0,0 +1,13 @@
+package ru.mishelby.walletapi.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveWalletApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveWalletApiApplication.class, args);
+    }
+
+}
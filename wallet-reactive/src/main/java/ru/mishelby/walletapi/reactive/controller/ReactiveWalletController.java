@@ -0,0 +1,53 @@
+package ru.mishelby.walletapi.reactive.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.mishelby.walletapi.model.DepositOperationRequest;
+import ru.mishelby.walletapi.model.TransferOperationRequest;
+import ru.mishelby.walletapi.model.WalletDto;
+import ru.mishelby.walletapi.model.WalletOperationResponse;
+import ru.mishelby.walletapi.reactive.service.ReactiveWalletService;
+
+import java.util.UUID;
+
+/**
+ * Неблокирующий REST-контроллер операций над кошельками.
+ * <p>
+ * Повторяет пути и модели сервлетного {@code WalletController}:
+ * <ul>
+ *     <li>Получение текущего баланса кошелька</li>
+ *     <li>Пополнение кошелька (deposit)</li>
+ *     <li>Перевод средств на другой кошелёк (withdraw)</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/v1/wallets")
+@RequiredArgsConstructor
+public class ReactiveWalletController {
+
+    private final ReactiveWalletService walletService;
+
+    @GetMapping(path = "/{uuid}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<WalletDto> getWalletBalance(@PathVariable("uuid") UUID uuid) {
+        return walletService.getBalance(uuid);
+    }
+
+    @PostMapping(path = "/{uuid}/deposit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<WalletOperationResponse> depositOperation(
+            @PathVariable("uuid") UUID uuid,
+            @RequestBody @Valid DepositOperationRequest request
+    ) {
+        return walletService.deposit(uuid, request);
+    }
+
+    @PostMapping(path = "/{uuid}/withdraw", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<WalletOperationResponse> withdrawOperation(
+            @PathVariable("uuid") UUID uuid,
+            @RequestBody @Valid TransferOperationRequest request
+    ) {
+        return walletService.withdraw(uuid, request);
+    }
+}
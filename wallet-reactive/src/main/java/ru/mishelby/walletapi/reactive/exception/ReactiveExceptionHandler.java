@@ -0,0 +1,75 @@
+package ru.mishelby.walletapi.reactive.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import ru.mishelby.walletapi.exception.ErrorResponse;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Обработчик ошибок реактивного API.
+ * <p>
+ * Возвращает тот же {@link ErrorResponse}, что и сервлетная версия.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleException(Exception ex, ServerHttpRequest request) {
+        return getErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, ex.getClass().getSimpleName(),
+                ex.getMessage(), request, null);
+    }
+
+    @ExceptionHandler(WalletNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFound(WalletNotFoundException ex, ServerHttpRequest request) {
+        return getErrorResponse(HttpStatus.NOT_FOUND, ex.getClass().getSimpleName(),
+                ex.getMessage(), request, null);
+    }
+
+    @ExceptionHandler(WalletOperationException.class)
+    public ResponseEntity<ErrorResponse> handleWalletOperation(WalletOperationException ex, ServerHttpRequest request) {
+        return getErrorResponse(HttpStatus.BAD_REQUEST, ex.getClass().getSimpleName(),
+                ex.getMessage(), request, null);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidation(WebExchangeBindException ex, ServerHttpRequest request) {
+        List<ErrorResponse.FieldError> fieldErrors = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(fe -> new ErrorResponse.FieldError(fe.getField(), fe.getDefaultMessage()))
+                .toList();
+
+        String details = fieldErrors.stream()
+                .map(ErrorResponse.FieldError::message)
+                .collect(Collectors.joining("; "));
+
+        return getErrorResponse(HttpStatus.BAD_REQUEST, "Validation exeption", details, request, fieldErrors);
+    }
+
+    private static ResponseEntity<ErrorResponse> getErrorResponse(
+            HttpStatus status,
+            String title,
+            String detail,
+            ServerHttpRequest request,
+            List<ErrorResponse.FieldError> fieldErrors
+    ) {
+        var errorResponse = ErrorResponse.builder()
+                .status(status.value())
+                .title(title)
+                .instance(request.getPath().value())
+                .details(detail)
+                .fieldError(fieldErrors)
+                .localDateTime(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.mishelby.walletapi.reactive.exception;
+
+import java.util.UUID;
+
+public class WalletNotFoundException extends RuntimeException {
+    public WalletNotFoundException(UUID walletID) {
+        super("Wallet Not Found For UUID %s".formatted(walletID));
+    }
+}
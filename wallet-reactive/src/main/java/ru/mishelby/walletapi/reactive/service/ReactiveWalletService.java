@@ -0,0 +1,207 @@
+package ru.mishelby.walletapi.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.DepositOperationRequest;
+import ru.mishelby.walletapi.model.Money;
+import ru.mishelby.walletapi.model.TransferOperationRequest;
+import ru.mishelby.walletapi.model.WalletDto;
+import ru.mishelby.walletapi.model.WalletOperationResponse;
+import ru.mishelby.walletapi.model.enums.OperationType;
+import ru.mishelby.walletapi.reactive.exception.WalletNotFoundException;
+import ru.mishelby.walletapi.service.WalletRules;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static ru.mishelby.walletapi.model.enums.OperationType.DEPOSIT;
+import static ru.mishelby.walletapi.model.enums.OperationType.WITHDRAW;
+
+/**
+ * Неблокирующий сервис операций над кошельками на R2DBC.
+ * <p>
+ * Вместо {@code SELECT ... FOR UPDATE} и изменения сущности каждая операция выполняется
+ * одним условным {@code UPDATE ... RETURNING}: условие проверяет заморозку и достаточность
+ * доступного баланса (за вычетом холдов) без отдельного чтения строки перед изменением.
+ * Запись в журнал {@code wallet_operation} делается тем же запросом через {@code WITH ... INSERT}.
+ * Если условие не выполнено, причина определяется по текущему состоянию строки
+ * и проверяется теми же {@link WalletRules}, что и в сервлетной версии.
+ * <p>
+ * Пополнение — один запрос в своей транзакции, поэтому блокировка строки держится только на время запроса.
+ * Перевод выполняется в одной транзакции: блокировка первой строки держится, пока изменяется вторая,
+ * и обе снимаются только при фиксации. Строки изменяются в порядке {@link WalletRules#LOCK_ORDER},
+ * чтобы встречные переводы не приводили к взаимоблокировке.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveWalletService {
+
+    private static final String SELECT_WALLET = """
+            SELECT balance, held_balance, frozen
+            FROM wallet
+            WHERE id = :id
+            """;
+
+    private static final String CREDIT = """
+            WITH changed AS (
+                UPDATE wallet
+                SET balance = balance + :amount
+                WHERE id = :id
+                  AND NOT frozen
+                RETURNING id, balance
+            )
+            INSERT INTO wallet_operation
+                (wallet_id, counterparty_id, operation_type, amount, old_balance, new_balance, created_at)
+            SELECT id, :counterparty, :type, :amount, balance - :amount, balance, localtimestamp
+            FROM changed
+            RETURNING new_balance AS balance
+            """;
+
+    private static final String DEBIT = """
+            WITH changed AS (
+                UPDATE wallet
+                SET balance = balance - :amount
+                WHERE id = :id
+                  AND NOT frozen
+                  AND balance - held_balance >= :amount
+                RETURNING id, balance
+            )
+            INSERT INTO wallet_operation
+                (wallet_id, counterparty_id, operation_type, amount, old_balance, new_balance, created_at)
+            SELECT id, :counterparty, :type, -:amount, balance + :amount, balance, localtimestamp
+            FROM changed
+            RETURNING new_balance AS balance
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Получает текущий баланс кошелька.
+     *
+     * @param walletID UUID кошелька
+     * @return {@link WalletDto} с балансом и текущим временем
+     */
+    public Mono<WalletDto> getBalance(UUID walletID) {
+        return findWallet(walletID)
+                .map(state -> new WalletDto(walletID, state.balance().toBigDecimal(), LocalDateTime.now()));
+    }
+
+    /**
+     * Пополняет баланс кошелька одним условным {@code UPDATE}.
+     *
+     * @param walletID                UUID кошелька
+     * @param depositOperationRequest объект запроса с суммой для депозита
+     * @return {@link WalletOperationResponse} с информацией об операции
+     */
+    public Mono<WalletOperationResponse> deposit(UUID walletID, DepositOperationRequest depositOperationRequest) {
+        return Mono.fromCallable(() -> validAmount(depositOperationRequest.amount()))
+                .flatMap(amount -> credit(walletID, null, DEPOSIT, amount)
+                        .map(newBalance -> getWalletOperationResponse(newBalance.minus(amount), newBalance, DEPOSIT)));
+    }
+
+    /**
+     * Списывает средства с кошелька и зачисляет их на другой кошелёк в одной транзакции.
+     *
+     * @param walletID                 UUID кошелька-отправителя
+     * @param transferOperationRequest объект запроса с суммой перевода и ID кошелька-получателя
+     * @return {@link WalletOperationResponse} с информацией об операции
+     */
+    public Mono<WalletOperationResponse> withdraw(UUID walletID, TransferOperationRequest transferOperationRequest) {
+        UUID walletIDTo = transferOperationRequest.walletIDTo();
+        return Mono.fromCallable(() -> {
+                    WalletRules.requireDistinctWallets(walletID, walletIDTo);
+                    return validAmount(transferOperationRequest.amount());
+                })
+                .flatMap(amount -> {
+                    Mono<Money> debit = debit(walletID, walletIDTo, amount);
+                    Mono<Money> credit = credit(walletIDTo, walletID, WITHDRAW, amount);
+
+                    Mono<Money> newBalanceFrom = WalletRules.LOCK_ORDER.compare(walletID, walletIDTo) <= 0
+                            ? debit.flatMap(credit::thenReturn)
+                            : credit.then(debit);
+
+                    return newBalanceFrom.map(newBalance ->
+                            getWalletOperationResponse(newBalance.plus(amount), newBalance, WITHDRAW));
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Money> credit(UUID walletID, UUID counterpartyID, OperationType type, Money amount) {
+        return bindCounterparty(databaseClient.sql(CREDIT), counterpartyID)
+                .bind("amount", amount.toBigDecimal())
+                .bind("id", walletID)
+                .bind("type", type.name())
+                .map(row -> Money.of(row.get("balance", BigDecimal.class)))
+                .one()
+                .switchIfEmpty(Mono.defer(() -> rejectReason(walletID, amount, false)));
+    }
+
+    private Mono<Money> debit(UUID walletID, UUID counterpartyID, Money amount) {
+        return bindCounterparty(databaseClient.sql(DEBIT), counterpartyID)
+                .bind("amount", amount.toBigDecimal())
+                .bind("id", walletID)
+                .bind("type", WITHDRAW.name())
+                .map(row -> Money.of(row.get("balance", BigDecimal.class)))
+                .one()
+                .switchIfEmpty(Mono.defer(() -> rejectReason(walletID, amount, true)));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindCounterparty(DatabaseClient.GenericExecuteSpec spec,
+                                                                      UUID counterpartyID) {
+        return counterpartyID == null
+                ? spec.bindNull("counterparty", UUID.class)
+                : spec.bind("counterparty", counterpartyID);
+    }
+
+    /**
+     * Определяет, почему условный {@code UPDATE} не изменил строку, и возвращает соответствующую ошибку.
+     */
+    private Mono<Money> rejectReason(UUID walletID, Money amount, boolean debit) {
+        return findWallet(walletID).flatMap(state -> {
+            WalletRules.requireNotFrozen(walletID, state.frozen());
+            if (debit) {
+                WalletRules.requireSufficientBalance(walletID, state.balance().minus(state.heldBalance()), amount);
+            }
+            return Mono.error(new WalletOperationException(
+                    "Concurrent modification, retry operation! Wallet ID %s".formatted(walletID)));
+        });
+    }
+
+    private Mono<WalletState> findWallet(UUID walletID) {
+        return databaseClient.sql(SELECT_WALLET)
+                .bind("id", walletID)
+                .map(row -> new WalletState(
+                        Money.of(row.get("balance", BigDecimal.class)),
+                        Money.of(row.get("held_balance", BigDecimal.class)),
+                        Boolean.TRUE.equals(row.get("frozen", Boolean.class))))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new WalletNotFoundException(walletID)));
+    }
+
+    private static Money validAmount(BigDecimal amount) {
+        var money = Money.of(amount);
+        WalletRules.requireNonNegativeAmount(money);
+        return money;
+    }
+
+    private static WalletOperationResponse getWalletOperationResponse(
+            Money oldBalance,
+            Money newBalance,
+            OperationType operationType) {
+        return WalletOperationResponse.builder()
+                .oldBalanceFrom(oldBalance.toBigDecimal())
+                .newBalanceFrom(newBalance.toBigDecimal())
+                .operationTime(LocalDateTime.now())
+                .operationType(operationType)
+                .build();
+    }
+
+    private record WalletState(Money balance, Money heldBalance, boolean frozen) {
+    }
+}
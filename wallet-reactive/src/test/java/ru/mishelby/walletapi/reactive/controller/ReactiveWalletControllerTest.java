@@ -0,0 +1,160 @@
+package ru.mishelby.walletapi.reactive.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.DepositOperationRequest;
+import ru.mishelby.walletapi.model.TransferOperationRequest;
+import ru.mishelby.walletapi.model.WalletDto;
+import ru.mishelby.walletapi.model.WalletOperationResponse;
+import ru.mishelby.walletapi.reactive.exception.WalletNotFoundException;
+import ru.mishelby.walletapi.reactive.service.ReactiveWalletService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static ru.mishelby.walletapi.model.enums.OperationType.DEPOSIT;
+import static ru.mishelby.walletapi.model.enums.OperationType.WITHDRAW;
+
+@WebFluxTest(ReactiveWalletController.class)
+class ReactiveWalletControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveWalletService walletService;
+
+    private static final UUID WALLET_ID = UUID.fromString("12345678-1234-1234-1234-123456789012");
+    private static final UUID WALLET_ID_TO = UUID.fromString("12345678-1234-1234-1234-123456789013");
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.ZERO;
+    private static final BigDecimal UPDATED_BALANCE = BigDecimal.TEN;
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 4, 20, 20, 59);
+
+    @Nested
+    @DisplayName("GET /wallets/{uuid}")
+    class GetWalletBalance {
+
+        @Test
+        @DisplayName("Должен вернуть статус 200 и баланс пользователя")
+        void getWalletBalance_shouldReturnBalance() {
+            Mockito.when(walletService.getBalance(WALLET_ID))
+                    .thenReturn(Mono.just(new WalletDto(WALLET_ID, INITIAL_BALANCE, TIME)));
+
+            webTestClient.get()
+                    .uri("/api/v1/wallets/{uuid}", WALLET_ID)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                    .expectBody()
+                    .jsonPath("$.walletID").isEqualTo(WALLET_ID.toString())
+                    .jsonPath("$.balance").isEqualTo(INITIAL_BALANCE.intValue())
+                    .jsonPath("$.requestedAt").exists();
+        }
+
+        @Test
+        @DisplayName("Должен вернуть статус 404, если кошелёк не найден")
+        void getWalletBalance_shouldReturnNotFound() {
+            Mockito.when(walletService.getBalance(WALLET_ID))
+                    .thenReturn(Mono.error(new WalletNotFoundException(WALLET_ID)));
+
+            webTestClient.get()
+                    .uri("/api/v1/wallets/{uuid}", WALLET_ID)
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectBody()
+                    .jsonPath("$.status").isEqualTo(404);
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /wallets/{uuid}/deposit")
+    class DepositWallet {
+
+        @Test
+        @DisplayName("Должен вернуть статус 200 и новый баланс пользователя")
+        void depositOperation_shouldReturnUpdatedBalance() {
+            var request = new DepositOperationRequest(UPDATED_BALANCE);
+            var response = new WalletOperationResponse(DEPOSIT, INITIAL_BALANCE, UPDATED_BALANCE, TIME);
+
+            Mockito.when(walletService.deposit(WALLET_ID, request)).thenReturn(Mono.just(response));
+
+            webTestClient.post()
+                    .uri("/api/v1/wallets/{uuid}/deposit", WALLET_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.newBalanceFrom").isEqualTo(UPDATED_BALANCE.intValue())
+                    .jsonPath("$.operationType").isEqualTo(DEPOSIT.toString());
+        }
+
+        @Test
+        @DisplayName("Должен вернуть статус 400, если сумма не положительная")
+        void depositOperation_shouldRejectNonPositiveAmount() {
+            webTestClient.post()
+                    .uri("/api/v1/wallets/{uuid}/deposit", WALLET_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new DepositOperationRequest(BigDecimal.ZERO))
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.fieldError[0].field").isEqualTo("amount");
+
+            Mockito.verifyNoInteractions(walletService);
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /wallets/{uuid}/withdraw")
+    class WithdrawWallet {
+
+        @Test
+        @DisplayName("Должен вернуть статус 200 и новый баланс пользователя")
+        void withdrawOperation_shouldReturnUpdatedBalance() {
+            var request = new TransferOperationRequest(WALLET_ID_TO, UPDATED_BALANCE);
+            var response = new WalletOperationResponse(WITHDRAW, UPDATED_BALANCE, INITIAL_BALANCE, TIME);
+
+            Mockito.when(walletService.withdraw(WALLET_ID, request)).thenReturn(Mono.just(response));
+
+            webTestClient.post()
+                    .uri("/api/v1/wallets/{uuid}/withdraw", WALLET_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.oldBalanceFrom").isEqualTo(UPDATED_BALANCE.intValue())
+                    .jsonPath("$.operationType").isEqualTo(WITHDRAW.toString());
+        }
+
+        @Test
+        @DisplayName("Должен вернуть статус 400 при ошибке операции")
+        void withdrawOperation_shouldReturnBadRequestOnWalletOperationException() {
+            var request = new TransferOperationRequest(WALLET_ID, UPDATED_BALANCE);
+
+            Mockito.when(walletService.withdraw(WALLET_ID, request))
+                    .thenReturn(Mono.error(new WalletOperationException(
+                            "Transfer to the source wallet is not allowed! Wallet ID %s".formatted(WALLET_ID))));
+
+            webTestClient.post()
+                    .uri("/api/v1/wallets/{uuid}/withdraw", WALLET_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.title").isEqualTo(WalletOperationException.class.getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.mishelby.walletapi.reactive.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ru.mishelby.walletapi.exception.WalletOperationException;
+import ru.mishelby.walletapi.model.TransferOperationRequest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+class ReactiveWalletServiceTest {
+
+    private static final UUID WALLET_ID = UUID.fromString("12345678-1234-1234-1234-123456789012");
+
+    private final DatabaseClient databaseClient = Mockito.mock(DatabaseClient.class);
+    private final TransactionalOperator transactionalOperator = Mockito.mock(TransactionalOperator.class);
+    private final ReactiveWalletService walletService =
+            new ReactiveWalletService(databaseClient, transactionalOperator);
+
+    @Test
+    @DisplayName("Перевод на тот же кошелёк отклоняется до обращения к базе данных")
+    void withdraw_shouldRejectTransferToSourceWallet() {
+        Mockito.when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        StepVerifier.create(walletService.withdraw(WALLET_ID, new TransferOperationRequest(WALLET_ID, BigDecimal.TEN)))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(WalletOperationException.class)
+                        .hasMessageContaining("Transfer to the source wallet is not allowed"))
+                .verify();
+
+        Mockito.verifyNoInteractions(databaseClient);
+    }
+}